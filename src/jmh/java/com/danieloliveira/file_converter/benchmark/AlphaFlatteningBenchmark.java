@@ -0,0 +1,116 @@
+package com.danieloliveira.file_converter.benchmark;
+
+import com.danieloliveira.file_converter.image.service.AlphaFlattener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlphaFlatteningBenchmark {
+
+    @Param({"png-rgba", "int-argb", "indexed"})
+    public String layout;
+
+    @Param({"2048"})
+    public int size;
+
+    private final AlphaFlattener flattener = new AlphaFlattener("#FFFFFF");
+
+    private BufferedImage source;
+    private WritableRaster pristine;
+    private BufferedImage scratch;
+
+    @Setup
+    public void setUp() throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(
+                BenchmarkCorpus.image("png", size, true).getBytes()));
+
+        source = switch (layout) {
+            case "png-rgba" -> decoded;
+            case "int-argb" -> convert(decoded, new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB));
+            case "indexed" -> convert(decoded, new BufferedImage(size, size, BufferedImage.TYPE_BYTE_INDEXED, palette()));
+            default -> throw new IllegalArgumentException(layout);
+        };
+        pristine = source.copyData(null);
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() {
+        // The in-place variant consumes its input, every invocation starts from the decoded pixels again
+        scratch = new BufferedImage(source.getColorModel(), source.getColorModel().createCompatibleWritableRaster(size, size),
+                source.isAlphaPremultiplied(), null);
+        scratch.setData(pristine);
+    }
+
+    @Benchmark
+    public BufferedImage graphics2d() {
+        BufferedImage flattened = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = flattened.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, size, size);
+            g.drawImage(scratch, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return flattened;
+    }
+
+    @Benchmark
+    public BufferedImage flatten() {
+        return flattener.flatten(scratch);
+    }
+
+    @Benchmark
+    public BufferedImage flattenInPlace() {
+        return flattener.flattenInPlace(scratch);
+    }
+
+    private static BufferedImage convert(BufferedImage source, BufferedImage target) {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static IndexColorModel palette() {
+        byte[] red = new byte[256];
+        byte[] green = new byte[256];
+        byte[] blue = new byte[256];
+        byte[] alpha = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            red[i] = (byte) (i * 7);
+            green[i] = (byte) (i * 13);
+            blue[i] = (byte) (i * 29);
+            alpha[i] = (byte) (i & 0xF0);
+        }
+        return new IndexColorModel(8, 256, red, green, blue, alpha);
+    }
+}
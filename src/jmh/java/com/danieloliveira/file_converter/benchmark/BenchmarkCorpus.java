@@ -0,0 +1,120 @@
+package com.danieloliveira.file_converter.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+final class BenchmarkCorpus {
+
+    private static final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt ut labore";
+
+    private BenchmarkCorpus() {
+    }
+
+    static MockMultipartFile image(String formatName, int size, boolean alpha) throws IOException {
+        BufferedImage image = new BufferedImage(size, size, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setPaint(new GradientPaint(0, 0, new Color(20, 90, 200, alpha ? 40 : 255),
+                    size, size, new Color(240, 180, 30, 255)));
+            g.fillRect(0, 0, size, size);
+
+            Random random = new Random(size);
+            for (int i = 0; i < 200; i++) {
+                g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), alpha ? random.nextInt(256) : 255));
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                g.fillOval(x, y, random.nextInt(size / 4 + 1), random.nextInt(size / 4 + 1));
+            }
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, formatName, outputStream);
+
+        return new MockMultipartFile("file", "image." + formatName, "image/" + formatName, outputStream.toByteArray());
+    }
+
+    static MockMultipartFile pdf(int pages) throws IOException {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(12);
+                    content.newLineAtOffset(40, 740);
+                    for (int line = 0; line < 55; line++) {
+                        content.showText("Page " + (p + 1) + " line " + (line + 1) + " " + LOREM);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+
+            document.save(outputStream);
+            return new MockMultipartFile("file", "document.pdf", "application/pdf", outputStream.toByteArray());
+        }
+    }
+
+    static MockMultipartFile text(int lines) {
+        StringBuilder text = new StringBuilder();
+        for (int line = 0; line < lines; line++) {
+            text.append(line + 1).append(' ').append(LOREM).append('\n');
+        }
+        return new MockMultipartFile("file", "document.txt", "text/plain", text.toString().getBytes());
+    }
+
+    static MockMultipartFile docx(int paragraphs) throws IOException {
+        StringBuilder document = new StringBuilder("<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"><w:body>");
+        for (int paragraph = 0; paragraph < paragraphs; paragraph++) {
+            document.append("<w:p><w:r><w:t>").append(paragraph + 1).append(' ').append(LOREM).append("</w:t></w:r></w:p>");
+        }
+        document.append("</w:body></w:document>");
+
+        Map<String, String> parts = new LinkedHashMap<>();
+        parts.put("[Content_Types].xml", "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Override PartName=\"/word/document.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml\"/>"
+                + "</Types>");
+        parts.put("_rels/.rels", "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"word/document.xml\"/>"
+                + "</Relationships>");
+        parts.put("word/document.xml", document.toString());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+            for (Map.Entry<String, String> part : parts.entrySet()) {
+                zip.putNextEntry(new ZipEntry(part.getKey()));
+                zip.write(part.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("file", "document.docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document", outputStream.toByteArray());
+    }
+}
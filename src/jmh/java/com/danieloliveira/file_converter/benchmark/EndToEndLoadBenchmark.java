@@ -0,0 +1,313 @@
+package com.danieloliveira.file_converter.benchmark;
+
+import com.danieloliveira.file_converter.FileConverterApplication;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import org.jodconverter.core.DocumentConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class EndToEndLoadBenchmark {
+
+    private static final List<String> READ_ENDPOINTS = List.of(
+            "/api/v1/conversions/documents/supported-conversions",
+            "/api/v1/office/processes",
+            "/api/v1/cache/stats",
+            "/actuator/health");
+
+    @Param({"250"})
+    public long officeLatencyMillis;
+
+    @Param({"0.02"})
+    public double officeFailureRate;
+
+    @Param({"2"})
+    public int officeProcesses;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    private Upload png;
+    private Upload pngBatch;
+    private Upload docx;
+    private Upload pdf;
+    private final AtomicInteger nextReadEndpoint = new AtomicInteger();
+
+    private final Map<String, Outcomes> outcomes = new ConcurrentHashMap<>();
+    private long gcCountBaseline;
+    private long gcTimeBaseline;
+    private boolean measuring;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Passed as arguments so they take precedence over application.properties
+        context = new SpringApplicationBuilder(FileConverterApplication.class, FakeOfficeConfig.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.allow-bean-definition-overriding=true",
+                        "--spring.devtools.restart.enabled=false",
+                        "--conversion.cache.enabled=false",
+                        "--conversion.store.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--benchmark.office.latency=" + officeLatencyMillis + "ms",
+                        "--benchmark.office.failure-rate=" + officeFailureRate,
+                        "--benchmark.office.processes=" + officeProcesses);
+
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        MockMultipartFile image = BenchmarkCorpus.image("png", 1024, true);
+        png = Upload.of("file", image);
+        pngBatch = Upload.of("files", image, image, image, image);
+        docx = Upload.of("file", BenchmarkCorpus.docx(500));
+        pdf = Upload.of("file", BenchmarkCorpus.pdf(10));
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams params) {
+        // Only the measurement iterations are reported, warm-up traffic and its collections are left out
+        if (params.getType() == IterationType.MEASUREMENT && !measuring) {
+            measuring = true;
+            outcomes.clear();
+            gcCountBaseline = gcCount();
+            gcTimeBaseline = gcTimeMillis();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        report();
+        context.close();
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(4)
+    public int imageToJpeg() throws IOException, InterruptedException {
+        return post("image-to-jpeg", "/api/v1/conversions/images/to-jpeg", png);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(2)
+    public int imageMulti() throws IOException, InterruptedException {
+        return post("image-multi", "/api/v1/conversions/images/multi?targetFormats=PNG,JPEG&width=512", png);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(1)
+    public int imageBatch() throws IOException, InterruptedException {
+        return post("image-batch", "/api/v1/conversions/batch/images?targetFormat=JPEG", pngBatch);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(1)
+    public int imageJob() throws IOException, InterruptedException {
+        return post("image-job", "/api/v1/jobs/images?targetFormat=JPEG", png);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(4)
+    public int documentToPdf() throws IOException, InterruptedException {
+        return post("document-to-pdf", "/api/v1/conversions/documents/to-pdf", docx);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(2)
+    public int documentMulti() throws IOException, InterruptedException {
+        return post("document-multi", "/api/v1/conversions/documents/multi?targetFormats=PDF,PDFA,TXT", docx);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(2)
+    public int documentToText() throws IOException, InterruptedException {
+        return post("document-to-txt", "/api/v1/conversions/documents/to-txt", docx);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(2)
+    public int pdfToTextStream() throws IOException, InterruptedException {
+        return post("pdf-to-txt-stream", "/api/v1/conversions/documents/to-txt/stream", pdf);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(1)
+    public int pdfToImages() throws IOException, InterruptedException {
+        return post("pdf-to-images", "/api/v1/conversions/documents/to-images?targetFormat=PNG&dpi=72&lastPage=4", pdf);
+    }
+
+    @Benchmark
+    @Group("endpoints")
+    @GroupThreads(1)
+    public int readOnly() throws IOException, InterruptedException {
+        String path = READ_ENDPOINTS.get(Math.floorMod(nextReadEndpoint.getAndIncrement(), READ_ENDPOINTS.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMinutes(1))
+                .GET()
+                .build();
+        return record("read-only", client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private int post(String name, String path, Upload upload) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "multipart/form-data; boundary=" + upload.boundary())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(upload.body()))
+                .build();
+
+        // Failed conversions are part of the load, they are counted instead of aborting the run
+        return record(name, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private int record(String name, int status) {
+        outcomes.computeIfAbsent(name, key -> new Outcomes()).record(status);
+        return status;
+    }
+
+    private void report() {
+        System.out.println();
+        System.out.printf("%-20s %10s %10s %10s %10s %8s%n", "endpoint", "requests", "ok", "rejected", "failed", "errors");
+        outcomes.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    Outcomes outcome = entry.getValue();
+                    long requests = outcome.requests();
+                    System.out.printf("%-20s %10d %10d %10d %10d %7.2f%%%n", entry.getKey(), requests,
+                            outcome.ok.sum(), outcome.rejected.sum(), outcome.failed.sum(),
+                            requests == 0 ? 0 : 100.0 * (outcome.rejected.sum() + outcome.failed.sum()) / requests);
+                });
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        System.out.printf("heap used %d MB, committed %d MB, max %d MB; %d collections taking %d ms during measurement%n",
+                heap.getUsed() >> 20, heap.getCommitted() >> 20, heap.getMax() >> 20,
+                gcCount() - gcCountBaseline, gcTimeMillis() - gcTimeBaseline);
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    private static long gcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    private static final class Outcomes {
+
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        void record(int status) {
+            if (status < 400) {
+                ok.increment();
+            } else if (status == 429 || status == 503) {
+                rejected.increment();
+            } else {
+                failed.increment();
+            }
+        }
+
+        long requests() {
+            return ok.sum() + rejected.sum() + failed.sum();
+        }
+    }
+
+    private record Upload(String boundary, byte[] body) {
+
+        static Upload of(String field, MockMultipartFile... files) throws IOException {
+            String boundary = UUID.randomUUID().toString();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            for (MockMultipartFile file : files) {
+                body.write(("--" + boundary + "\r\n"
+                        + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + file.getOriginalFilename() + "\"\r\n"
+                        + "Content-Type: " + file.getContentType() + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                body.write(file.getBytes());
+                body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+            }
+            body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+            return new Upload(boundary, body.toByteArray());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class FakeOfficeConfig {
+
+        @Bean(initMethod = "start", destroyMethod = "stop")
+        public OfficeProcessPool officeProcessPool(
+                @Value("${benchmark.office.latency}") Duration latency,
+                @Value("${benchmark.office.failure-rate}") double failureRate,
+                @Value("${benchmark.office.processes}") int processes) throws IOException {
+            FakeOffice office = new FakeOffice(latency, failureRate, BenchmarkCorpus.pdf(1).getBytes());
+            return office.createPool(processes, new File(System.getProperty("java.io.tmpdir")));
+        }
+
+        @Bean
+        public DocumentConverter documentConverter(OfficeProcessPool officeProcessPool) {
+            return FakeOffice.createConverter(officeProcessPool);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.danieloliveira.file_converter.benchmark;
+
+import com.danieloliveira.file_converter.document.office.MultiTargetConversionTask;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import org.jodconverter.core.DocumentConverter;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.job.AbstractConversionJob;
+import org.jodconverter.core.job.AbstractConversionJobWithSourceFormatUnspecified;
+import org.jodconverter.core.job.AbstractConverter;
+import org.jodconverter.core.job.AbstractSourceDocumentSpecs;
+import org.jodconverter.core.job.AbstractTargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class FakeOffice {
+
+    private final Duration latency;
+    private final double failureRate;
+    private final byte[] output;
+
+    FakeOffice(Duration latency, double failureRate, byte[] output) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.output = output;
+    }
+
+    OfficeProcessPool createPool(int processes, File workingDir) {
+        return new OfficeProcessPool(port -> new FakeOfficeManager(), processes, processes, 2002, 0, 3,
+                Duration.ofMinutes(1), Duration.ofHours(1), workingDir);
+    }
+
+    static DocumentConverter createConverter(OfficeProcessPool pool) {
+        return new FakeDocumentConverter(pool);
+    }
+
+    private void simulate(Collection<File> targets) throws OfficeException {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OfficeException("Simulated conversion was interrupted", e);
+        }
+
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new OfficeException("Simulated conversion failure");
+        }
+
+        try {
+            for (File target : targets) {
+                Files.write(target.toPath(), output);
+            }
+        } catch (IOException e) {
+            throw new OfficeException("Could not write the simulated output", e);
+        }
+    }
+
+    private final class FakeOfficeManager implements OfficeManager {
+
+        private volatile boolean running;
+
+        @Override
+        public void execute(OfficeTask task) throws OfficeException {
+            if (task instanceof MultiTargetConversionTask multiTargetTask) {
+                simulate(multiTargetTask.getTargets().keySet());
+            } else if (task instanceof FakeConversionTask conversionTask) {
+                simulate(List.of(conversionTask.target()));
+            } else {
+                simulate(List.of());
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public void start() {
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+    }
+
+    private record FakeConversionTask(File target) implements OfficeTask {
+
+        @Override
+        public void execute(OfficeContext context) {
+        }
+    }
+
+    // Goes through the pool like LocalConverter does, so office conversions still queue for a process
+    private static final class FakeDocumentConverter extends AbstractConverter {
+
+        private FakeDocumentConverter(OfficeProcessPool pool) {
+            super(pool, DefaultDocumentFormatRegistry.getInstance());
+        }
+
+        @Override
+        protected AbstractConversionJobWithSourceFormatUnspecified convert(AbstractSourceDocumentSpecs source) {
+            return new FakeJobWithSourceFormatUnspecified(source, officeManager);
+        }
+    }
+
+    private static final class FakeJobWithSourceFormatUnspecified extends AbstractConversionJobWithSourceFormatUnspecified {
+
+        private FakeJobWithSourceFormatUnspecified(AbstractSourceDocumentSpecs source, OfficeManager officeManager) {
+            super(source, officeManager, DefaultDocumentFormatRegistry.getInstance());
+        }
+
+        @Override
+        protected AbstractConversionJob to(AbstractTargetDocumentSpecs target) {
+            return new FakeJob(source, target, officeManager);
+        }
+    }
+
+    private static final class FakeJob extends AbstractConversionJob {
+
+        private final OfficeManager officeManager;
+
+        private FakeJob(AbstractSourceDocumentSpecs source, AbstractTargetDocumentSpecs target, OfficeManager officeManager) {
+            super(source, target);
+            this.officeManager = officeManager;
+        }
+
+        @Override
+        protected void doExecute() throws OfficeException {
+            File sourceFile = source.getFile();
+            File targetFile = target.getFile();
+
+            try {
+                officeManager.execute(new FakeConversionTask(targetFile));
+                target.onComplete(targetFile);
+            } catch (OfficeException | RuntimeException e) {
+                target.onFailure(targetFile, e);
+                throw e;
+            } finally {
+                source.onConsumed(sourceFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.danieloliveira.file_converter.benchmark;
+
+import com.danieloliveira.file_converter.cache.service.ConversionCacheService;
+import com.danieloliveira.file_converter.concurrency.AdmissionController;
+import com.danieloliveira.file_converter.concurrency.ConversionThreads;
+import com.danieloliveira.file_converter.detection.FormatSniffer;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import com.danieloliveira.file_converter.image.service.AlphaFlattener;
+import com.danieloliveira.file_converter.image.service.ImageCodecPool;
+import com.danieloliveira.file_converter.image.service.ImageConverterService;
+import com.danieloliveira.file_converter.image.service.ImageDecoder;
+import com.danieloliveira.file_converter.image.service.ImageResizer;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import com.danieloliveira.file_converter.store.service.ArtifactStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageConversionBenchmark {
+
+    @Param({"png-alpha", "png", "jpeg", "webp-alpha", "webp"})
+    public String source;
+
+    @Param({"PNG", "JPEG", "WEBP"})
+    public ImageFormat target;
+
+    @Param({"512", "2048"})
+    public int size;
+
+    private ImageConverterService service;
+    private MockMultipartFile input;
+
+    @Setup
+    public void setUp() throws IOException {
+        ArtifactStore disabledStore = new ArtifactStore(false, Path.of(System.getProperty("java.io.tmpdir")),
+                DataSize.ofBytes(0), Duration.ZERO, 0);
+        ConversionCacheService disabledCache = new ConversionCacheService(false, DataSize.ofBytes(0), DataSize.ofBytes(0),
+                disabledStore);
+        ConversionMetrics metrics = new ConversionMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry());
+        AlphaFlattener flattener = new AlphaFlattener("#FFFFFF");
+        ImageCodecPool codecs = new ImageCodecPool(0, DataSize.ofMegabytes(1));
+        service = new ImageConverterService(disabledCache,
+                new ImageDecoder(16_000_000, 4, 200_000_000, flattener, codecs),
+                new FormatSniffer(),
+                new ImageResizer(),
+                flattener,
+                codecs,
+                metrics,
+                new ConversionThreads(metrics, false, 0),
+                new AdmissionController(metrics, 0, 64, Duration.ofSeconds(10), DataSize.ofBytes(0),
+                        0, 64, Duration.ofSeconds(10), 0, 64, Duration.ofSeconds(10), 0, 32, Duration.ofSeconds(30)));
+
+        boolean alpha = source.endsWith("-alpha");
+        input = BenchmarkCorpus.image(source.replace("-alpha", ""), size, alpha);
+    }
+
+    @Benchmark
+    public long convert() throws IOException {
+        Resource result = service.imageConverter(input, target);
+
+        try (InputStream inputStream = result.getInputStream()) {
+            return inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
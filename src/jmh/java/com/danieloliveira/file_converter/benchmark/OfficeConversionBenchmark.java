@@ -0,0 +1,83 @@
+package com.danieloliveira.file_converter.benchmark;
+
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import com.danieloliveira.file_converter.document.service.strategy.JodConverterStrategy;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.office.LocalOfficeManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class OfficeConversionBenchmark {
+
+    @Param({"txt", "docx"})
+    public String source;
+
+    @Param({"PDF", "PDFA"})
+    public DocFormat target;
+
+    private OfficeProcessPool pool;
+    private JodConverterStrategy strategy;
+    private MockMultipartFile input;
+    private DocFormat sourceFormat;
+
+    @Setup
+    public void setUp() throws IOException, OfficeException {
+        String officeHome = System.getProperty("benchmark.office.home", "");
+        if (officeHome.isBlank()) {
+            throw new IllegalStateException("Run with -Pbenchmark,benchmark-office to benchmark LibreOffice conversions");
+        }
+
+        pool = new OfficeProcessPool(
+                port -> LocalOfficeManager.builder().officeHome(officeHome).portNumbers(port).build(),
+                1, 1, 2002, 0, 3, Duration.ofMinutes(1), Duration.ofHours(1),
+                new File(System.getProperty("java.io.tmpdir")));
+        pool.start();
+        strategy = new JodConverterStrategy(LocalConverter.make(pool), pool);
+
+        MockMultipartFile text = BenchmarkCorpus.text(2000);
+        sourceFormat = DocFormat.valueOf(source.toUpperCase());
+        if (source.equals("txt")) {
+            input = text;
+        } else {
+            ByteArrayOutputStream docx = new ByteArrayOutputStream();
+            strategy.convert(text, DocFormat.TXT, DocFormat.DOCX, docx);
+            input = new MockMultipartFile("file", "document.docx", DocFormat.DOCX.getMimeType(), docx.toByteArray());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws OfficeException {
+        pool.stop();
+    }
+
+    @Benchmark
+    public void convert() throws IOException {
+        strategy.convert(input, sourceFormat, target, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,56 @@
+package com.danieloliveira.file_converter.benchmark;
+
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.service.strategy.PdfToTextStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfToTextBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int pages;
+
+    @Param({"1", "0"})
+    public int workers;
+
+    private PdfToTextStrategy strategy;
+    private MockMultipartFile input;
+
+    @Setup
+    public void setUp() throws IOException {
+        strategy = new PdfToTextStrategy(64, 16, workers, DataSize.ofMegabytes(32));
+        input = BenchmarkCorpus.pdf(pages);
+    }
+
+    @TearDown
+    public void tearDown() {
+        strategy.shutdown();
+    }
+
+    @Benchmark
+    public void extractText() throws IOException {
+        strategy.convert(input, DocFormat.PDF, DocFormat.TXT, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,187 @@
+package com.danieloliveira.file_converter.benchmark;
+
+import com.danieloliveira.file_converter.FileConverterApplication;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class RequestConcurrencyBenchmark {
+
+    private static final int UPLOAD_CHUNK_BYTES = 8 * 1024;
+    private static final long UPLOAD_CHUNK_DELAY_MILLIS = 25;
+
+    // Virtual threads need a Java 21+ runtime, on older ones both variants run on platform threads
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"32"})
+    public int tomcatThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI endpoint;
+    private String boundary;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(FileConverterApplication.class, IdleOfficeConfig.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + tomcatThreads,
+                        "spring.main.allow-bean-definition-overriding=true",
+                        "spring.devtools.restart.enabled=false",
+                        "conversion.cache.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        endpoint = URI.create("http://localhost:" + port + "/api/v1/conversions/images/to-jpeg");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        MockMultipartFile image = BenchmarkCorpus.image("png", 512, true);
+        boundary = UUID.randomUUID().toString();
+        body = multipartBody(image, boundary);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(64)
+    public int slowClientUpload() throws IOException, InterruptedException {
+        return post(() -> new ThrottledInputStream(body));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public int imageConversion() throws IOException, InterruptedException {
+        return post(() -> new ByteArrayInputStream(body));
+    }
+
+    private int post(Supplier<InputStream> bodySupplier) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofInputStream(bodySupplier))
+                .build();
+
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Conversion failed with status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private static byte[] multipartBody(MockMultipartFile file, String boundary) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + file.getOriginalFilename() + "\"\r\n"
+                + "Content-Type: " + file.getContentType() + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(file.getBytes());
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static final class ThrottledInputStream extends FilterInputStream {
+
+        private ThrottledInputStream(byte[] bytes) {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                Thread.sleep(UPLOAD_CHUNK_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Upload was interrupted");
+            }
+            return super.read(buffer, offset, Math.min(length, UPLOAD_CHUNK_BYTES));
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class IdleOfficeConfig {
+
+        @Bean(initMethod = "start", destroyMethod = "stop")
+        public OfficeProcessPool officeProcessPool() {
+            return new OfficeProcessPool(port -> new IdleOfficeManager(), 1, 1, 2002, 0, 3,
+                    Duration.ofSeconds(30), Duration.ofHours(1), new File(System.getProperty("java.io.tmpdir")));
+        }
+    }
+
+    private static final class IdleOfficeManager implements OfficeManager {
+
+        private volatile boolean running;
+
+        @Override
+        public void execute(OfficeTask task) {
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public void start() {
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+    }
+}
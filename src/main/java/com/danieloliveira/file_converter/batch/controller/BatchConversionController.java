@@ -0,0 +1,75 @@
+package com.danieloliveira.file_converter.batch.controller;
+
+import com.danieloliveira.file_converter.batch.service.BatchConversionService;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.exceptions.ErrorMessage;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/conversions/batch")
+@CrossOrigin
+@RequiredArgsConstructor
+@Tag(name = "Batch Conversion", description = "Endpoints for converting many files in one request and downloading them as a ZIP.")
+public class BatchConversionController {
+
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+    private final BatchConversionService service;
+
+    @Operation(summary = "Convert images in batch", description = "Converts every uploaded image to the target format in parallel and streams a ZIP back as each file finishes. The ZIP ends with a manifest.json describing the outcome of each file.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "ZIP stream started",
+                    content = @Content(mediaType = "application/zip")),
+            @ApiResponse(responseCode = "400", description = "Bad Request: No files or too many files",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> convertImages(
+            @Parameter(description = "The image files to convert", required = true)
+            @RequestParam("files") List<MultipartFile> images,
+            @Parameter(description = "The target image format", required = true)
+            @RequestParam("targetFormat") ImageFormat targetFormat) {
+
+        return zip(service.convertImages(images, targetFormat), "images_converted.zip");
+    }
+
+    @Operation(summary = "Convert documents in batch", description = "Converts every uploaded document to the target format in parallel and streams a ZIP back as each file finishes. The ZIP ends with a manifest.json describing the outcome of each file.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "ZIP stream started",
+                    content = @Content(mediaType = "application/zip")),
+            @ApiResponse(responseCode = "400", description = "Bad Request: No files or too many files",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/documents", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> convertDocuments(
+            @Parameter(description = "The document files to convert", required = true)
+            @RequestParam("files") List<MultipartFile> documents,
+            @Parameter(description = "The target document format", required = true)
+            @RequestParam("targetFormat") DocFormat targetFormat) {
+
+        return zip(service.convertDocuments(documents, targetFormat), "documents_converted.zip");
+    }
+
+    private ResponseEntity<StreamingResponseBody> zip(StreamingResponseBody body, String fileName) {
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
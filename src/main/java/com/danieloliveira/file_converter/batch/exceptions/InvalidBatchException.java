@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.batch.exceptions;
+
+public class InvalidBatchException extends RuntimeException {
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,6 @@
+package com.danieloliveira.file_converter.batch.model;
+
+public enum BatchEntryStatus {
+    CONVERTED,
+    FAILED
+}
@@ -0,0 +1,4 @@
+package com.danieloliveira.file_converter.batch.model;
+
+public record BatchManifestEntry(String source, String output, BatchEntryStatus status, String error) {
+}
@@ -0,0 +1,233 @@
+package com.danieloliveira.file_converter.batch.service;
+
+import com.danieloliveira.file_converter.batch.exceptions.InvalidBatchException;
+import com.danieloliveira.file_converter.batch.model.BatchEntryStatus;
+import com.danieloliveira.file_converter.batch.model.BatchManifestEntry;
+import com.danieloliveira.file_converter.concurrency.ConversionThreads;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.service.DocumentConverterService;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import com.danieloliveira.file_converter.image.service.ImageConverterService;
+import com.danieloliveira.file_converter.storage.TemporaryFileResource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Slf4j
+@Service
+public class BatchConversionService {
+
+    private static final String MANIFEST_NAME = "manifest.json";
+
+    private final ImageConverterService imageConverterService;
+    private final DocumentConverterService documentConverterService;
+    private final JsonMapper jsonMapper;
+    private final int maxFiles;
+    private final ExecutorService executor;
+
+    public BatchConversionService(
+            ImageConverterService imageConverterService,
+            DocumentConverterService documentConverterService,
+            JsonMapper jsonMapper,
+            ConversionThreads threads,
+            @Value("${conversion.batch.max-files:500}") int maxFiles,
+            @Value("${conversion.batch.workers:0}") int workers) {
+
+        this.imageConverterService = imageConverterService;
+        this.documentConverterService = documentConverterService;
+        this.jsonMapper = jsonMapper;
+        this.maxFiles = maxFiles;
+
+        this.executor = Executors.newFixedThreadPool(
+                workers > 0 ? workers : Runtime.getRuntime().availableProcessors(),
+                threads.ioThreads("batch-conversion-"));
+    }
+
+    public StreamingResponseBody convertImages(List<MultipartFile> files, ImageFormat targetFormat) {
+        return convert(files, targetFormat.name().toLowerCase(), Deflater.NO_COMPRESSION,
+                file -> imageConverterService.imageConverter(file, targetFormat));
+    }
+
+    public StreamingResponseBody convertDocuments(List<MultipartFile> files, DocFormat targetFormat) {
+        return convert(files, targetFormat.getExtension(), Deflater.DEFAULT_COMPRESSION,
+                file -> documentConverterService.documentConverter(file, targetFormat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private StreamingResponseBody convert(List<MultipartFile> files, String extension, int compressionLevel,
+                                          BatchConversion conversion) {
+        if (files == null || files.isEmpty()) {
+            throw new InvalidBatchException("At least one file is required");
+        }
+        if (files.size() > maxFiles) {
+            throw new InvalidBatchException("A batch can contain at most " + maxFiles + " files");
+        }
+
+        // Conversions start with the body, a response that is never written leaves no results behind
+        return outputStream -> {
+            CompletionService<BatchResult> completionService = new ExecutorCompletionService<>(executor);
+            List<Future<BatchResult>> futures = new ArrayList<>();
+            UnreadResults unread = new UnreadResults();
+
+            try {
+                for (MultipartFile file : files) {
+                    futures.add(completionService.submit(() -> convertFile(file, conversion, unread)));
+                }
+
+                writeZip(outputStream, extension, compressionLevel, completionService, futures, unread);
+            } finally {
+                discardPending(futures);
+                unread.discard();
+            }
+        };
+    }
+
+    private BatchResult convertFile(MultipartFile file, BatchConversion conversion, UnreadResults unread) {
+        String source = StringUtils.getFilename(file.getOriginalFilename());
+
+        try {
+            if (file.isEmpty()) {
+                return new BatchResult(source, null, "File is empty or corrupted");
+            }
+            return new BatchResult(source, unread.add(conversion.convert(file)), null);
+        } catch (Exception e) {
+            return new BatchResult(source, null, e.getMessage());
+        }
+    }
+
+    private void writeZip(OutputStream outputStream, String extension, int compressionLevel,
+                          CompletionService<BatchResult> completionService,
+                          List<Future<BatchResult>> futures, UnreadResults unread) throws IOException {
+
+        List<BatchManifestEntry> manifest = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        zip.setLevel(compressionLevel);
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                BatchResult result = completionService.take().get();
+
+                if (result.output() == null) {
+                    manifest.add(new BatchManifestEntry(result.source(), null, BatchEntryStatus.FAILED, result.error()));
+                    continue;
+                }
+
+                String entryName = uniqueEntryName(result.source(), extension, usedNames);
+                zip.putNextEntry(new ZipEntry(entryName));
+                try (InputStream inputStream = result.output().getInputStream()) {
+                    inputStream.transferTo(zip);
+                } finally {
+                    unread.remove(result.output());
+                }
+                zip.closeEntry();
+                zip.flush();
+
+                manifest.add(new BatchManifestEntry(result.source(), entryName, BatchEntryStatus.CONVERTED, null));
+            }
+
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(MANIFEST_NAME));
+            zip.write(jsonMapper.writeValueAsBytes(manifest));
+            zip.closeEntry();
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch conversion was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch conversion failed", e.getCause());
+        }
+    }
+
+    private static void discardPending(List<Future<BatchResult>> futures) {
+        for (Future<BatchResult> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static String uniqueEntryName(String source, String extension, Set<String> usedNames) {
+        String baseName = source == null ? "file" : StringUtils.stripFilenameExtension(source);
+        String name = baseName + "." + extension;
+
+        for (int copy = 1; !usedNames.add(name); copy++) {
+            name = baseName + " (" + copy + ")." + extension;
+        }
+        return name;
+    }
+
+    private static final class UnreadResults {
+
+        private final Set<TemporaryFileResource> resources = new HashSet<>();
+        private boolean discarded;
+
+        private synchronized Resource add(Resource output) {
+            // A conversion that finishes after the ZIP was abandoned has nobody left to read it
+            if (output instanceof TemporaryFileResource temporary) {
+                if (discarded) {
+                    delete(temporary);
+                } else {
+                    resources.add(temporary);
+                }
+            }
+            return output;
+        }
+
+        private synchronized void remove(Resource output) {
+            if (output instanceof TemporaryFileResource temporary) {
+                resources.remove(temporary);
+                delete(temporary);
+            }
+        }
+
+        private synchronized void discard() {
+            discarded = true;
+            resources.forEach(UnreadResults::delete);
+            resources.clear();
+        }
+
+        private static void delete(TemporaryFileResource resource) {
+            try {
+                Files.deleteIfExists(resource.getFile().toPath());
+            } catch (IOException e) {
+                log.warn("Could not delete batch result {}: {}", resource.getFilename(), e.getMessage());
+            }
+        }
+    }
+
+    private record BatchResult(String source, Resource output, String error) {
+    }
+
+    @FunctionalInterface
+    private interface BatchConversion {
+        Resource convert(MultipartFile file) throws IOException;
+    }
+}
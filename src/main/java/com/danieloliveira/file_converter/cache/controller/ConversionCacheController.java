@@ -0,0 +1,28 @@
+package com.danieloliveira.file_converter.cache.controller;
+
+import com.danieloliveira.file_converter.cache.model.CacheStats;
+import com.danieloliveira.file_converter.cache.service.ConversionCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@RequiredArgsConstructor
+@Tag(name = "Conversion Cache", description = "Endpoints for inspecting the conversion result cache.")
+public class ConversionCacheController {
+
+    private final ConversionCacheService service;
+
+    @Operation(summary = "Cache statistics", description = "Returns hit, miss and eviction counters and the current size of the memory and disk tiers.")
+    @ApiResponse(responseCode = "200", description = "Statistics returned successfully")
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStats> stats() {
+        return ResponseEntity.ok(service.getStats());
+    }
+}
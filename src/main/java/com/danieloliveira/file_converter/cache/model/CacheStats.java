@@ -0,0 +1,12 @@
+package com.danieloliveira.file_converter.cache.model;
+
+public record CacheStats(
+        long memoryHits,
+        long diskHits,
+        long misses,
+        long evictions,
+        int memoryEntries,
+        long memorySizeBytes,
+        int diskEntries,
+        long diskSizeBytes) {
+}
@@ -0,0 +1,40 @@
+package com.danieloliveira.file_converter.cache.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+
+public record ConversionCacheKey(String inputHash, String targetFormat, String options) {
+
+    private static final int OPTIONS_HASH_BYTES = 8;
+
+    public String etag() {
+        String suffix = options.isEmpty() ? "" : "-" + optionsHash();
+        return "\"" + inputHash + "-" + targetFormat.toLowerCase() + suffix + "\"";
+    }
+
+    public boolean matches(Collection<String> ifNoneMatch) {
+        // If-None-Match uses the weak comparison, so W/ prefixed copies of the tag match as well
+        String etag = etag();
+        for (String candidate : ifNoneMatch) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String optionsHash() {
+        // Option strings are free-form, so they are hashed like the input to keep tags distinct and header safe
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(options.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, OPTIONS_HASH_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
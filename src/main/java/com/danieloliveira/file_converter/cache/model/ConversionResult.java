@@ -0,0 +1,14 @@
+package com.danieloliveira.file_converter.cache.model;
+
+import org.springframework.core.io.Resource;
+
+public record ConversionResult(String etag, Resource resource) {
+
+    public static ConversionResult notModified(String etag) {
+        return new ConversionResult(etag, null);
+    }
+
+    public boolean isNotModified() {
+        return resource == null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.danieloliveira.file_converter.cache.service;
+
+import com.danieloliveira.file_converter.cache.model.CacheStats;
+import com.danieloliveira.file_converter.cache.model.ConversionCacheKey;
+import com.danieloliveira.file_converter.storage.FileBackedMultipartFile;
+import com.danieloliveira.file_converter.store.service.ArtifactStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class ConversionCacheService {
+
+    private static final long MAX_MAPPED_BYTES = 256L * 1024 * 1024;
+
+    private final boolean enabled;
+    private final long memoryMaxBytes;
+    private final long memoryMaxEntryBytes;
+    private final ArtifactStore store;
+
+    private final LinkedHashMap<ConversionCacheKey, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memorySizeBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ConversionCacheService(
+            @Value("${conversion.cache.enabled:true}") boolean enabled,
+            @Value("${conversion.cache.memory.max-size:64MB}") DataSize memoryMaxSize,
+            @Value("${conversion.cache.memory.max-entry-size:8MB}") DataSize memoryMaxEntrySize,
+            ArtifactStore store) {
+
+        this.enabled = enabled;
+        this.memoryMaxBytes = memoryMaxSize.toBytes();
+        this.memoryMaxEntryBytes = memoryMaxEntrySize.toBytes();
+        this.store = store;
+    }
+
+    public ConversionCacheKey createKey(MultipartFile file, Enum<?> targetFormat, String options) throws IOException {
+        return new ConversionCacheKey(inputHash(file), targetFormat.name(), options);
+    }
+
+    public String inputHash(MultipartFile file) throws IOException {
+        MessageDigest digest = sha256();
+
+        if (file instanceof FileBackedMultipartFile fileBacked) {
+            hashMapped(fileBacked.getPath(), digest);
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void hashMapped(Path path, MessageDigest digest) throws IOException {
+        // Spooled uploads are hashed straight from the page cache instead of being copied through a heap buffer
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAX_MAPPED_BYTES) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAX_MAPPED_BYTES, size - position)));
+            }
+        }
+    }
+
+    public Optional<Resource> get(ConversionCacheKey key) {
+        // conversion.cache.enabled only switches the memory tier, the artifact store has its own switch
+        if (enabled) {
+            synchronized (memory) {
+                byte[] cached = memory.get(key);
+                if (cached != null) {
+                    memoryHits.incrementAndGet();
+                    return Optional.of(new ByteArrayResource(cached));
+                }
+            }
+        }
+
+        // Results that do not fit in memory, or were evicted from it, come from the artifact store
+        Optional<Resource> stored = store.get(key);
+        if (stored.isPresent()) {
+            diskHits.incrementAndGet();
+            return stored;
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public boolean contains(ConversionCacheKey key) {
+        if (enabled) {
+            synchronized (memory) {
+                if (memory.containsKey(key)) {
+                    return true;
+                }
+            }
+        }
+        return store.contains(key);
+    }
+
+    public void put(ConversionCacheKey key, Path result) {
+        try {
+            if (enabled && Files.size(result) <= memoryMaxEntryBytes) {
+                putInMemory(key, Files.readAllBytes(result));
+            }
+        } catch (IOException e) {
+            log.warn("Could not cache conversion result: {}", e.getMessage());
+        }
+
+        store.put(key, result);
+    }
+
+    public CacheStats getStats() {
+        synchronized (memory) {
+            return new CacheStats(
+                    memoryHits.get(),
+                    diskHits.get(),
+                    misses.get(),
+                    evictions.get(),
+                    memory.size(),
+                    memorySizeBytes,
+                    store.getEntries(),
+                    store.getSizeBytes());
+        }
+    }
+
+    private void putInMemory(ConversionCacheKey key, byte[] result) {
+        synchronized (memory) {
+            byte[] previous = memory.put(key, result);
+            memorySizeBytes += result.length - (previous == null ? 0 : previous.length);
+
+            Iterator<byte[]> eldest = memory.values().iterator();
+            while (memorySizeBytes > memoryMaxBytes && eldest.hasNext()) {
+                memorySizeBytes -= eldest.next().length;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
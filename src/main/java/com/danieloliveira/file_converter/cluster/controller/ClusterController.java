@@ -0,0 +1,30 @@
+package com.danieloliveira.file_converter.cluster.controller;
+
+import com.danieloliveira.file_converter.cluster.model.NodeLoad;
+import com.danieloliveira.file_converter.cluster.service.ClusterCoordinator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/cluster")
+@RequiredArgsConstructor
+@Tag(name = "Cluster", description = "Endpoints for inspecting the converter instances sharing the work.")
+public class ClusterController {
+
+    private final ClusterCoordinator coordinator;
+
+    @Operation(summary = "Cluster nodes", description = "Returns this instance and the live peers with their last published office and image load.")
+    @ApiResponse(responseCode = "200", description = "Nodes returned successfully")
+    @GetMapping("/nodes")
+    public ResponseEntity<List<NodeLoad>> nodes() {
+        return ResponseEntity.ok(coordinator.getNodes());
+    }
+}
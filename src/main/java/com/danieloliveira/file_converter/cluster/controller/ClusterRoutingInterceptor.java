@@ -0,0 +1,69 @@
+package com.danieloliveira.file_converter.cluster.controller;
+
+import com.danieloliveira.file_converter.cache.model.ConversionCacheKey;
+import com.danieloliveira.file_converter.cache.service.ConversionCacheService;
+import com.danieloliveira.file_converter.cluster.model.ConversionRoute;
+import com.danieloliveira.file_converter.cluster.model.NodeLoad;
+import com.danieloliveira.file_converter.cluster.service.ClusterCoordinator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class ClusterRoutingInterceptor implements HandlerInterceptor {
+
+    public static final String HOP_PARAMETER = "cluster-hop";
+
+    private final ClusterCoordinator coordinator;
+    private final ConversionCacheService cache;
+    private final ConversionRouteResolver resolver;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // A redirected request is converted wherever it lands, so a busy cluster cannot bounce it between nodes
+        if (!HttpMethod.POST.matches(request.getMethod())
+                || request.getParameter(HOP_PARAMETER) != null
+                || !(request instanceof MultipartHttpServletRequest multipart)) {
+            return true;
+        }
+
+        MultipartFile file = multipart.getFile("file");
+        if (file == null || file.isEmpty()) {
+            return true;
+        }
+
+        Optional<ConversionRoute> route = resolver.resolve(request, file);
+        if (route.isEmpty() || !coordinator.shouldOffload(route.get().engine())) {
+            return true;
+        }
+
+        // Results this node already has are served from here, a second upload would cost more than the lookup
+        String inputHash = cache.inputHash(file);
+        boolean cached = route.get().targetFormats().stream()
+                .allMatch(targetFormat -> cache.contains(new ConversionCacheKey(inputHash, targetFormat, route.get().options())));
+        if (cached) {
+            return true;
+        }
+
+        Optional<NodeLoad> peer = coordinator.selectPeer(route.get().engine(), inputHash);
+        if (peer.isEmpty()) {
+            return true;
+        }
+
+        // 307 keeps the method and body, the client uploads the file again to the chosen peer
+        String query = request.getQueryString();
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, peer.get().url() + request.getRequestURI()
+                + "?" + (query == null ? "" : query + "&") + HOP_PARAMETER + "=1");
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.danieloliveira.file_converter.cluster.controller;
+
+import com.danieloliveira.file_converter.cluster.model.ConversionRoute;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+
+@FunctionalInterface
+public interface ConversionRouteResolver {
+
+    Optional<ConversionRoute> resolve(HttpServletRequest request, MultipartFile file) throws IOException;
+}
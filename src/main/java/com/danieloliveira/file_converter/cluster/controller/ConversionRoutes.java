@@ -0,0 +1,115 @@
+package com.danieloliveira.file_converter.cluster.controller;
+
+import com.danieloliveira.file_converter.cluster.model.ConversionRoute;
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+import com.danieloliveira.file_converter.detection.FormatSniffer;
+import com.danieloliveira.file_converter.document.exceptions.InvalidDocumentFormatException;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.service.ConversionRouter;
+import com.danieloliveira.file_converter.image.model.ImageConversionOptions;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.ServletRequestDataBinder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class ConversionRoutes {
+
+    private final FormatSniffer sniffer;
+    private final ConversionRouter router;
+
+    public ConversionRouteResolver image(ImageFormat targetFormat) {
+        return (request, file) -> imageOptions(request)
+                .map(options -> new ConversionRoute(ConversionClass.IMAGE, List.of(targetFormat.name()), options.cacheKey()));
+    }
+
+    public ConversionRouteResolver images() {
+        return (request, file) -> {
+            Optional<ImageConversionOptions> options = imageOptions(request);
+            Optional<Set<ImageFormat>> targetFormats = targetFormats(request, ImageFormat.class);
+            if (options.isEmpty() || targetFormats.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new ConversionRoute(ConversionClass.IMAGE, names(targetFormats.get()),
+                    options.get().cacheKey()));
+        };
+    }
+
+    public ConversionRouteResolver document(DocFormat targetFormat) {
+        return (request, file) -> sniffer.detectDocument(file)
+                .flatMap(sourceFormat -> documentRoute(sourceFormat, Set.of(targetFormat)));
+    }
+
+    public ConversionRouteResolver documents() {
+        return (request, file) -> {
+            Optional<Set<DocFormat>> targetFormats = targetFormats(request, DocFormat.class);
+            if (targetFormats.isEmpty()) {
+                return Optional.empty();
+            }
+            return sniffer.detectDocument(file)
+                    .flatMap(sourceFormat -> documentRoute(sourceFormat, targetFormats.get()));
+        };
+    }
+
+    private Optional<ConversionRoute> documentRoute(DocFormat sourceFormat, Set<DocFormat> targetFormats) {
+        // The engine is the one of the strategy that handles the pair, a request needing LibreOffice for any target
+        // counts as an office conversion
+        List<ConversionClass> engines = new ArrayList<>();
+        try {
+            for (DocFormat targetFormat : targetFormats) {
+                engines.add(router.route(sourceFormat, targetFormat).getConversionClass());
+            }
+        } catch (InvalidDocumentFormatException e) {
+            return Optional.empty();
+        }
+
+        ConversionClass engine = engines.contains(ConversionClass.OFFICE) ? ConversionClass.OFFICE : engines.get(0);
+        return Optional.of(new ConversionRoute(engine, names(targetFormats), ""));
+    }
+
+    private static Optional<ImageConversionOptions> imageOptions(HttpServletRequest request) {
+        // Bound the same way the controllers bind them, so the cache keys match the ones the conversion would use
+        ServletRequestDataBinder binder = new ServletRequestDataBinder(null);
+        binder.setTargetType(ResolvableType.forClass(ImageConversionOptions.class));
+        binder.setConversionService(ApplicationConversionService.getSharedInstance());
+        binder.construct(request);
+
+        if (binder.getBindingResult().hasErrors() || binder.getTarget() == null) {
+            return Optional.empty();
+        }
+        return Optional.of((ImageConversionOptions) binder.getTarget());
+    }
+
+    private static <E extends Enum<E>> Optional<Set<E>> targetFormats(HttpServletRequest request, Class<E> type) {
+        String[] values = request.getParameterValues("targetFormats");
+        if (values == null) {
+            return Optional.empty();
+        }
+
+        Set<E> targetFormats = new LinkedHashSet<>();
+        try {
+            for (String value : values) {
+                for (String name : value.split(",")) {
+                    targetFormats.add(Enum.valueOf(type, name.trim()));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        return targetFormats.isEmpty() ? Optional.empty() : Optional.of(targetFormats);
+    }
+
+    private static List<String> names(Set<? extends Enum<?>> formats) {
+        return formats.stream().map(Enum::name).toList();
+    }
+}
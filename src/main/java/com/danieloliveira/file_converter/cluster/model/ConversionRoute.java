@@ -0,0 +1,8 @@
+package com.danieloliveira.file_converter.cluster.model;
+
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+
+import java.util.List;
+
+public record ConversionRoute(ConversionClass engine, List<String> targetFormats, String options) {
+}
@@ -0,0 +1,18 @@
+package com.danieloliveira.file_converter.cluster.model;
+
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+
+import java.time.Instant;
+
+public record NodeLoad(
+        String nodeId,
+        String url,
+        int officeQueued,
+        double officeLoad,
+        double imageLoad,
+        Instant publishedAt) {
+
+    public double load(ConversionClass engine) {
+        return engine == ConversionClass.OFFICE ? officeLoad : imageLoad;
+    }
+}
@@ -0,0 +1,168 @@
+package com.danieloliveira.file_converter.cluster.service;
+
+import com.danieloliveira.file_converter.cluster.model.NodeLoad;
+import com.danieloliveira.file_converter.concurrency.AdmissionController;
+import com.danieloliveira.file_converter.concurrency.model.AdmissionStats;
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+import com.danieloliveira.file_converter.document.model.OfficePoolStats;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ClusterCoordinator {
+
+    private static final int VIRTUAL_NODES = 64;
+
+    // Only the engines whose load the nodes publish are balanced, text extraction is cheaper than a second upload
+    private static final Set<ConversionClass> BALANCED_ENGINES = EnumSet.of(ConversionClass.OFFICE, ConversionClass.IMAGE);
+
+    private final boolean enabled;
+    private final String nodeId;
+    private final String url;
+    private final NodeRegistry registry;
+    private final OfficeProcessPool officePool;
+    private final AdmissionController admission;
+    private final Duration nodeExpiry;
+    private final double saturation;
+    private final double loadTolerance;
+
+    private volatile List<NodeLoad> peers = List.of();
+    private volatile ConsistentHashRing ring;
+
+    public ClusterCoordinator(
+            @Value("${conversion.cluster.enabled:false}") boolean enabled,
+            @Value("${conversion.cluster.node-id:}") String nodeId,
+            @Value("${conversion.cluster.advertised-url:}") String url,
+            @Value("${conversion.cluster.node-expiry:10s}") Duration nodeExpiry,
+            @Value("${conversion.cluster.saturation:1.0}") double saturation,
+            @Value("${conversion.cluster.load-tolerance:0.25}") double loadTolerance,
+            NodeRegistry registry,
+            OfficeProcessPool officePool,
+            AdmissionController admission) {
+
+        if (enabled && url.isBlank()) {
+            throw new IllegalStateException("conversion.cluster.advertised-url is required when clustering is enabled");
+        }
+
+        this.enabled = enabled;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.nodeExpiry = nodeExpiry;
+        this.saturation = saturation;
+        this.loadTolerance = loadTolerance;
+        this.registry = registry;
+        this.officePool = officePool;
+        this.admission = admission;
+        this.ring = ConsistentHashRing.of(Set.of(this.nodeId), VIRTUAL_NODES);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${conversion.cluster.heartbeat-interval-ms:2000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+
+        registry.publish(localLoad());
+
+        Instant expiredBefore = Instant.now().minus(nodeExpiry);
+        List<NodeLoad> live = registry.nodes().stream()
+                .filter(node -> !node.nodeId().equals(nodeId) && node.publishedAt().isAfter(expiredBefore))
+                .toList();
+        peers = live;
+
+        Set<String> nodeIds = live.stream().map(NodeLoad::nodeId).collect(Collectors.toCollection(HashSet::new));
+        nodeIds.add(nodeId);
+        if (!ring.nodeIds().equals(nodeIds)) {
+            log.info("Cluster membership changed, {} nodes: {}", nodeIds.size(), nodeIds);
+            ring = ConsistentHashRing.of(nodeIds, VIRTUAL_NODES);
+        }
+    }
+
+    public boolean shouldOffload(ConversionClass engine) {
+        return enabled && BALANCED_ENGINES.contains(engine) && !peers.isEmpty()
+                && localLoad().load(engine) >= saturation;
+    }
+
+    public Optional<NodeLoad> selectPeer(ConversionClass engine, String inputHash) {
+        // This node is on the ring too, the inputs it owns stay here while it has room, a saturated owner hands
+        // them to the next peer on the ring like any other input
+        List<String> owners = ring.walk(inputHash);
+        double localLoad = localLoad().load(engine);
+        if (owners.isEmpty() || (owners.get(0).equals(nodeId) && localLoad < saturation)) {
+            return Optional.empty();
+        }
+
+        Instant expiredBefore = Instant.now().minus(nodeExpiry);
+        Map<String, NodeLoad> candidates = peers.stream()
+                .filter(node -> node.publishedAt().isAfter(expiredBefore))
+                .collect(Collectors.toMap(NodeLoad::nodeId, Function.identity()));
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+
+        double leastLoad = candidates.values().stream().mapToDouble(node -> node.load(engine)).min().orElseThrow();
+        if (leastLoad >= Math.min(saturation, localLoad)) {
+            return Optional.empty();
+        }
+
+        // Peers within the tolerance of the least loaded one count as equal, the ring picks among them so the
+        // same input keeps landing on the node that already has its result cached
+        for (String candidateId : owners) {
+            NodeLoad candidate = candidates.get(candidateId);
+            if (candidate != null && candidate.load(engine) <= leastLoad + loadTolerance
+                    && candidate.load(engine) < saturation) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<NodeLoad> getNodes() {
+        List<NodeLoad> nodes = new ArrayList<>();
+        nodes.add(localLoad());
+        nodes.addAll(peers);
+        return nodes;
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (enabled) {
+            registry.remove(nodeId);
+        }
+    }
+
+    private NodeLoad localLoad() {
+        OfficePoolStats office = officePool.getStats();
+        AdmissionStats officeAdmission = admission.getStats(ConversionClass.OFFICE);
+        AdmissionStats image = admission.getStats(ConversionClass.IMAGE);
+
+        int officeQueued = office.queuedTasks() + officeAdmission.waiting();
+        int officeBusy = Math.max(0, office.runningProcesses() - office.idleProcesses());
+        double officeLoad = (double) (officeBusy + officeQueued) / Math.max(1, office.maxProcesses());
+        double imageLoad = (double) (image.inFlight() + image.waiting()) / Math.max(1, image.maxConcurrent());
+
+        return new NodeLoad(nodeId, url, officeQueued, officeLoad, imageLoad, Instant.now());
+    }
+}
@@ -0,0 +1,62 @@
+package com.danieloliveira.file_converter.cluster.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+public final class ConsistentHashRing {
+
+    private final Set<String> nodeIds;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    private ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        this.nodeIds = Set.copyOf(nodeIds);
+        for (String nodeId : this.nodeIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(nodeId + "#" + i), nodeId);
+            }
+        }
+    }
+
+    public static ConsistentHashRing of(Collection<String> nodeIds, int virtualNodes) {
+        return new ConsistentHashRing(nodeIds, virtualNodes);
+    }
+
+    public Set<String> nodeIds() {
+        return nodeIds;
+    }
+
+    public List<String> walk(String key) {
+        // Every node once, in ring order from the key, so callers can skip nodes that cannot take the work
+        Set<String> order = new LinkedHashSet<>();
+        long position = hash(key);
+        for (String nodeId : ring.tailMap(position, true).values()) {
+            if (order.add(nodeId) && order.size() == nodeIds.size()) {
+                return new ArrayList<>(order);
+            }
+        }
+        for (String nodeId : ring.headMap(position, false).values()) {
+            if (order.add(nodeId) && order.size() == nodeIds.size()) {
+                break;
+            }
+        }
+        return new ArrayList<>(order);
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.danieloliveira.file_converter.cluster.service;
+
+import com.danieloliveira.file_converter.cluster.model.NodeLoad;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+@Slf4j
+public class DirectoryNodeRegistry implements NodeRegistry {
+
+    private static final String EXTENSION = ".node";
+
+    private final Path directory;
+
+    public DirectoryNodeRegistry(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public void publish(NodeLoad load) {
+        Properties properties = new Properties();
+        properties.setProperty("node-id", load.nodeId());
+        properties.setProperty("url", load.url());
+        properties.setProperty("office-queued", Integer.toString(load.officeQueued()));
+        properties.setProperty("office-load", Double.toString(load.officeLoad()));
+        properties.setProperty("image-load", Double.toString(load.imageLoad()));
+        properties.setProperty("published-at", Long.toString(load.publishedAt().toEpochMilli()));
+
+        // Peers list the directory while nodes publish, so a node file is only ever replaced by a rename
+        try {
+            Path temp = Files.createTempFile(directory, "node-", ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                properties.store(outputStream, null);
+            }
+            Files.move(temp, nodeFile(load.nodeId()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not publish the load of node {}: {}", load.nodeId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public List<NodeLoad> nodes() {
+        List<NodeLoad> nodes = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(path -> path.toString().endsWith(EXTENSION)).toList()) {
+                try (InputStream inputStream = Files.newInputStream(path)) {
+                    Properties properties = new Properties();
+                    properties.load(inputStream);
+                    nodes.add(new NodeLoad(
+                            properties.getProperty("node-id"),
+                            properties.getProperty("url"),
+                            Integer.parseInt(properties.getProperty("office-queued")),
+                            Double.parseDouble(properties.getProperty("office-load")),
+                            Double.parseDouble(properties.getProperty("image-load")),
+                            Instant.ofEpochMilli(Long.parseLong(properties.getProperty("published-at")))));
+                } catch (IOException | RuntimeException e) {
+                    // A node that left between the listing and the read is simply skipped
+                    log.debug("Could not read node file {}: {}", path, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list cluster nodes in {}: {}", directory, e.getMessage());
+        }
+
+        return nodes;
+    }
+
+    @Override
+    public void remove(String nodeId) {
+        try {
+            Files.deleteIfExists(nodeFile(nodeId));
+        } catch (IOException e) {
+            log.warn("Could not remove node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private Path nodeFile(String nodeId) {
+        return directory.resolve(nodeId.replaceAll("[^A-Za-z0-9._-]", "_") + EXTENSION);
+    }
+}
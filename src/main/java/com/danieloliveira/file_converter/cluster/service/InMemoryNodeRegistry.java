@@ -0,0 +1,27 @@
+package com.danieloliveira.file_converter.cluster.service;
+
+import com.danieloliveira.file_converter.cluster.model.NodeLoad;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryNodeRegistry implements NodeRegistry {
+
+    private final Map<String, NodeLoad> nodes = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(NodeLoad load) {
+        nodes.put(load.nodeId(), load);
+    }
+
+    @Override
+    public List<NodeLoad> nodes() {
+        return List.copyOf(nodes.values());
+    }
+
+    @Override
+    public void remove(String nodeId) {
+        nodes.remove(nodeId);
+    }
+}
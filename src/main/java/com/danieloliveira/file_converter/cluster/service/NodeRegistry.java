@@ -0,0 +1,14 @@
+package com.danieloliveira.file_converter.cluster.service;
+
+import com.danieloliveira.file_converter.cluster.model.NodeLoad;
+
+import java.util.List;
+
+public interface NodeRegistry {
+
+    void publish(NodeLoad load);
+
+    List<NodeLoad> nodes();
+
+    void remove(String nodeId);
+}
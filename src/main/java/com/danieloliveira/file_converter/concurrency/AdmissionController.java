@@ -0,0 +1,207 @@
+package com.danieloliveira.file_converter.concurrency;
+
+import com.danieloliveira.file_converter.concurrency.exceptions.ConversionCapacityExceededException;
+import com.danieloliveira.file_converter.concurrency.exceptions.TooManyConversionsException;
+import com.danieloliveira.file_converter.concurrency.model.AdmissionStats;
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class AdmissionController {
+
+    private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_AFTER = Duration.ofMinutes(1);
+
+    private final ConversionMetrics metrics;
+    private final Map<ConversionClass, Gate> gates = new EnumMap<>(ConversionClass.class);
+    private final Semaphore imageMemory;
+    private final int imageMemoryBudgetKib;
+
+    public AdmissionController(
+            ConversionMetrics metrics,
+            @Value("${conversion.admission.image.max-concurrent:0}") int imageMaxConcurrent,
+            @Value("${conversion.admission.image.max-queued:64}") int imageMaxQueued,
+            @Value("${conversion.admission.image.max-wait:10s}") Duration imageMaxWait,
+            @Value("${conversion.admission.image.memory-budget:0B}") DataSize imageMemoryBudget,
+            @Value("${conversion.admission.pdf-text.max-concurrent:0}") int pdfTextMaxConcurrent,
+            @Value("${conversion.admission.pdf-text.max-queued:64}") int pdfTextMaxQueued,
+            @Value("${conversion.admission.pdf-text.max-wait:10s}") Duration pdfTextMaxWait,
+            @Value("${conversion.admission.office-text.max-concurrent:0}") int officeTextMaxConcurrent,
+            @Value("${conversion.admission.office-text.max-queued:64}") int officeTextMaxQueued,
+            @Value("${conversion.admission.office-text.max-wait:10s}") Duration officeTextMaxWait,
+            @Value("${conversion.admission.office.max-concurrent:0}") int officeMaxConcurrent,
+            @Value("${conversion.admission.office.max-queued:32}") int officeMaxQueued,
+            @Value("${conversion.admission.office.max-wait:30s}") Duration officeMaxWait) {
+
+        this.metrics = metrics;
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        gates.put(ConversionClass.IMAGE, new Gate(imageMaxConcurrent > 0 ? imageMaxConcurrent : processors,
+                imageMaxQueued, imageMaxWait));
+        gates.put(ConversionClass.PDF_TEXT, new Gate(pdfTextMaxConcurrent > 0 ? pdfTextMaxConcurrent : processors,
+                pdfTextMaxQueued, pdfTextMaxWait));
+        gates.put(ConversionClass.OFFICE_TEXT, new Gate(officeTextMaxConcurrent > 0 ? officeTextMaxConcurrent : processors,
+                officeTextMaxQueued, officeTextMaxWait));
+        gates.put(ConversionClass.OFFICE, new Gate(officeMaxConcurrent > 0 ? officeMaxConcurrent : processors * 2,
+                officeMaxQueued, officeMaxWait));
+
+        long budgetBytes = imageMemoryBudget.toBytes() > 0
+                ? imageMemoryBudget.toBytes()
+                : Runtime.getRuntime().maxMemory() / 2;
+        this.imageMemoryBudgetKib = (int) Math.min(Integer.MAX_VALUE, Math.max(1, budgetBytes / 1024));
+        this.imageMemory = new Semaphore(imageMemoryBudgetKib, true);
+    }
+
+    public Permit admit(ConversionClass conversionClass) throws InterruptedIOException {
+        return admit(conversionClass, 0);
+    }
+
+    public Permit admitImage(long estimatedDecodedBytes) throws InterruptedIOException {
+        // An image bigger than the whole budget is still admitted, it just has the budget to itself
+        long kib = Math.max(1, (estimatedDecodedBytes + 1023) / 1024);
+        return admit(ConversionClass.IMAGE, (int) Math.min(kib, imageMemoryBudgetKib));
+    }
+
+    public AdmissionStats getStats(ConversionClass conversionClass) {
+        Gate gate = gates.get(conversionClass);
+        long reservedKib = conversionClass == ConversionClass.IMAGE
+                ? imageMemoryBudgetKib - imageMemory.availablePermits()
+                : 0;
+
+        return new AdmissionStats(
+                gate.maxConcurrent,
+                gate.maxConcurrent - gate.permits.availablePermits(),
+                gate.waiting.get(),
+                gate.admittedImmediately.get(),
+                gate.admittedAfterQueueing.get(),
+                gate.rejectedQueueFull.get(),
+                gate.rejectedTimeout.get(),
+                reservedKib * 1024);
+    }
+
+    private Permit admit(ConversionClass conversionClass, int memoryKib) throws InterruptedIOException {
+        Gate gate = gates.get(conversionClass);
+
+        if (gate.permits.tryAcquire()) {
+            if (memoryKib == 0 || imageMemory.tryAcquire(memoryKib)) {
+                gate.admittedImmediately.incrementAndGet();
+                return new Permit(gate, memoryKib);
+            }
+            gate.permits.release();
+        }
+
+        if (gate.waiting.incrementAndGet() > gate.maxQueued) {
+            gate.waiting.decrementAndGet();
+            gate.rejectedQueueFull.incrementAndGet();
+            throw new TooManyConversionsException("Too many " + conversionClass.getTag()
+                    + " conversions are waiting, try again later", gate.retryAfter());
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + gate.maxWait.toNanos();
+        boolean admitted = false;
+        try {
+            if (gate.permits.tryAcquire(gate.maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                if (memoryKib == 0
+                        || imageMemory.tryAcquire(memoryKib, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    admitted = true;
+                } else {
+                    gate.permits.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for conversion capacity");
+        } finally {
+            gate.waiting.decrementAndGet();
+            metrics.recordQueueWait("admission-" + conversionClass.getTag(), Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        if (!admitted) {
+            gate.rejectedTimeout.incrementAndGet();
+            throw new ConversionCapacityExceededException("No " + conversionClass.getTag()
+                    + " conversion capacity became available within " + DurationStyle.SIMPLE.print(gate.maxWait)
+                    + ", try again later", gate.retryAfter());
+        }
+
+        gate.admittedAfterQueueing.incrementAndGet();
+        return new Permit(gate, memoryKib);
+    }
+
+    public final class Permit implements AutoCloseable {
+
+        private final Gate gate;
+        private final int memoryKib;
+        private final long admittedAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Gate gate, int memoryKib) {
+            this.gate = gate;
+            this.memoryKib = memoryKib;
+        }
+
+        @Override
+        public void close() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+
+            if (memoryKib > 0) {
+                imageMemory.release(memoryKib);
+            }
+            gate.permits.release();
+            gate.recordHold(System.nanoTime() - admittedAt);
+        }
+    }
+
+    private static final class Gate {
+
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final Duration maxWait;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicLong averageHoldNanos = new AtomicLong();
+
+        private final AtomicLong admittedImmediately = new AtomicLong();
+        private final AtomicLong admittedAfterQueueing = new AtomicLong();
+        private final AtomicLong rejectedQueueFull = new AtomicLong();
+        private final AtomicLong rejectedTimeout = new AtomicLong();
+
+        private Gate(int maxConcurrent, int maxQueued, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.maxWait = maxWait;
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+
+        private void recordHold(long nanos) {
+            averageHoldNanos.updateAndGet(average -> average == 0 ? nanos : average + (nanos - average) / 8);
+        }
+
+        private Duration retryAfter() {
+            // Roughly the time the work already queued needs to drain
+            long nanos = averageHoldNanos.get() * (waiting.get() + 1) / maxConcurrent;
+            Duration retryAfter = Duration.ofNanos(nanos);
+
+            if (retryAfter.compareTo(MIN_RETRY_AFTER) < 0) {
+                return MIN_RETRY_AFTER;
+            }
+            return retryAfter.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : retryAfter;
+        }
+    }
+}
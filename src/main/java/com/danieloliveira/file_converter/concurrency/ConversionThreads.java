@@ -0,0 +1,156 @@
+package com.danieloliveira.file_converter.concurrency;
+
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import io.micrometer.observation.Observation;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class ConversionThreads {
+
+    @Getter
+    private final boolean virtual;
+    private final ConversionMetrics metrics;
+    private final ExecutorService cpuExecutor;
+
+    public ConversionThreads(
+            ConversionMetrics metrics,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+            @Value("${conversion.threads.cpu-workers:0}") int cpuWorkers) {
+
+        this.metrics = metrics;
+        this.virtual = virtualThreadsEnabled && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+        if (virtualThreadsEnabled && !virtual) {
+            log.warn("Virtual threads need Java 21 or newer, running {} on platform threads", JavaVersion.getJavaVersion());
+        }
+
+        this.cpuExecutor = Executors.newFixedThreadPool(
+                cpuWorkers > 0 ? cpuWorkers : Runtime.getRuntime().availableProcessors(),
+                cpuThreads("conversion-cpu-"));
+    }
+
+    public static ThreadFactory cpuThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new CpuThread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public ThreadFactory ioThreads(String prefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> new Thread(runnable, prefix + counter.incrementAndGet());
+    }
+
+    public <T> T compute(Observation.CheckedCallable<T, IOException> task) throws IOException {
+        // Platform threads can do the work themselves, virtual threads must not pin their carrier with it
+        if (!virtual || Thread.currentThread() instanceof CpuThread) {
+            return task.call();
+        }
+
+        return await(submit(task));
+    }
+
+    public void computeAll(List<Observation.CheckedRunnable<IOException>> tasks) throws IOException {
+        // A CPU worker runs the tasks itself, waiting on its own pool could leave every worker blocked
+        if (tasks.size() == 1 || Thread.currentThread() instanceof CpuThread) {
+            for (Observation.CheckedRunnable<IOException> task : tasks) {
+                task.run();
+            }
+            return;
+        }
+
+        List<Future<Void>> results = new ArrayList<>();
+        for (Observation.CheckedRunnable<IOException> task : tasks) {
+            results.add(submit(() -> {
+                task.run();
+                return null;
+            }));
+        }
+
+        // Every task is waited for before failing, so the caller can clean up whatever the others produced
+        Exception failure = null;
+        for (Future<Void> result : results) {
+            try {
+                await(result);
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cpuExecutor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Observation.CheckedCallable<T, IOException> task) {
+        long submittedAt = System.nanoTime();
+        return cpuExecutor.submit(() -> {
+            metrics.recordQueueWait("cpu", Duration.ofNanos(System.nanoTime() - submittedAt));
+            return task.call();
+        });
+    }
+
+    private static <T> T await(Future<T> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Conversion was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static final class CpuThread extends Thread {
+
+        private CpuThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
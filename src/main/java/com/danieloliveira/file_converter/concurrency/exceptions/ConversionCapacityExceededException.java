@@ -0,0 +1,9 @@
+package com.danieloliveira.file_converter.concurrency.exceptions;
+
+import java.time.Duration;
+
+public class ConversionCapacityExceededException extends AdmissionRejectedException {
+    public ConversionCapacityExceededException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
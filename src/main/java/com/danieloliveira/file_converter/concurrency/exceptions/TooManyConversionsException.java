@@ -0,0 +1,9 @@
+package com.danieloliveira.file_converter.concurrency.exceptions;
+
+import java.time.Duration;
+
+public class TooManyConversionsException extends AdmissionRejectedException {
+    public TooManyConversionsException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
@@ -0,0 +1,12 @@
+package com.danieloliveira.file_converter.concurrency.model;
+
+public record AdmissionStats(
+        int maxConcurrent,
+        int inFlight,
+        int waiting,
+        long admittedImmediately,
+        long admittedAfterQueueing,
+        long rejectedQueueFull,
+        long rejectedTimeout,
+        long reservedMemoryBytes) {
+}
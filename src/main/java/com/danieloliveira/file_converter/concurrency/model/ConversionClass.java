@@ -0,0 +1,19 @@
+package com.danieloliveira.file_converter.concurrency.model;
+
+import lombok.Getter;
+
+@Getter
+public enum ConversionClass {
+    IMAGE("image", true),
+    PDF_TEXT("pdf-text", true),
+    OFFICE_TEXT("office-text", true),
+    OFFICE("office", false);
+
+    private final String tag;
+    private final boolean cpuBound;
+
+    ConversionClass(String tag, boolean cpuBound) {
+        this.tag = tag;
+        this.cpuBound = cpuBound;
+    }
+}
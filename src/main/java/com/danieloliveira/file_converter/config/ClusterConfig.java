@@ -0,0 +1,29 @@
+package com.danieloliveira.file_converter.config;
+
+import com.danieloliveira.file_converter.cluster.service.DirectoryNodeRegistry;
+import com.danieloliveira.file_converter.cluster.service.InMemoryNodeRegistry;
+import com.danieloliveira.file_converter.cluster.service.NodeRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class ClusterConfig {
+
+    @Bean
+    public NodeRegistry nodeRegistry(
+            @Value("${conversion.cluster.registry:memory}") String registry,
+            @Value("${conversion.cluster.registry-directory:${java.io.tmpdir}/file-converter-cluster}") Path directory)
+            throws IOException {
+
+        // The in-memory registry only sees this instance, replicas share a directory on a common volume
+        return switch (registry) {
+            case "memory" -> new InMemoryNodeRegistry();
+            case "directory" -> new DirectoryNodeRegistry(directory);
+            default -> throw new IllegalArgumentException("Unknown cluster registry: " + registry);
+        };
+    }
+}
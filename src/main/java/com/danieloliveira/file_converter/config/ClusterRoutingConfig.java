@@ -0,0 +1,49 @@
+package com.danieloliveira.file_converter.config;
+
+import com.danieloliveira.file_converter.cache.service.ConversionCacheService;
+import com.danieloliveira.file_converter.cluster.controller.ClusterRoutingInterceptor;
+import com.danieloliveira.file_converter.cluster.controller.ConversionRouteResolver;
+import com.danieloliveira.file_converter.cluster.controller.ConversionRoutes;
+import com.danieloliveira.file_converter.cluster.service.ClusterCoordinator;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class ClusterRoutingConfig implements WebMvcConfigurer {
+
+    private static final String IMAGES = "/api/v1/conversions/images";
+    private static final String DOCUMENTS = "/api/v1/conversions/documents";
+
+    private final ClusterCoordinator coordinator;
+    private final ConversionCacheService cache;
+    private final ConversionRoutes routes;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!coordinator.isEnabled()) {
+            return;
+        }
+
+        route(registry, IMAGES + "/to-png", routes.image(ImageFormat.PNG));
+        route(registry, IMAGES + "/to-jpeg", routes.image(ImageFormat.JPEG));
+        route(registry, IMAGES + "/to-webp", routes.image(ImageFormat.WEBP));
+        route(registry, IMAGES + "/multi", routes.images());
+
+        // Streaming text and page rendering are not redirected, neither runs on an engine the cluster balances
+        route(registry, DOCUMENTS + "/to-pdf", routes.document(DocFormat.PDF));
+        route(registry, DOCUMENTS + "/to-pdfa", routes.document(DocFormat.PDFA));
+        route(registry, DOCUMENTS + "/to-docx", routes.document(DocFormat.DOCX));
+        route(registry, DOCUMENTS + "/to-txt", routes.document(DocFormat.TXT));
+        route(registry, DOCUMENTS + "/to-csv", routes.document(DocFormat.CSV));
+        route(registry, DOCUMENTS + "/multi", routes.documents());
+    }
+
+    private void route(InterceptorRegistry registry, String path, ConversionRouteResolver resolver) {
+        registry.addInterceptor(new ClusterRoutingInterceptor(coordinator, cache, resolver)).addPathPatterns(path);
+    }
+}
@@ -0,0 +1,21 @@
+package com.danieloliveira.file_converter.config;
+
+import com.danieloliveira.file_converter.storage.SpoolingMultipartResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.MultipartResolver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class MultipartConfig {
+
+    @Bean
+    public MultipartResolver multipartResolver(
+            @Value("${conversion.uploads.directory:${java.io.tmpdir}/file-converter-uploads}") Path directory)
+            throws IOException {
+        return new SpoolingMultipartResolver(directory);
+    }
+}
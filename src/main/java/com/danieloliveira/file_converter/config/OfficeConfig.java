@@ -0,0 +1,77 @@
+package com.danieloliveira.file_converter.config;
+
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import com.danieloliveira.file_converter.document.office.OfficeWarmUp;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import org.jodconverter.core.DocumentConverter;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.office.LocalOfficeManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.File;
+import java.time.Duration;
+
+@Configuration
+public class OfficeConfig {
+
+    @Value("${jodconverter.local.office-home}")
+    private String officeHome;
+
+    @Value("${jodconverter.local.task-execution-timeout:60000}")
+    private long taskExecutionTimeout;
+
+    @Value("${jodconverter.local.process-timeout:120000}")
+    private long processTimeout;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public OfficeProcessPool officeProcessPool(
+            @Value("${office.pool.min-processes:1}") int minProcesses,
+            @Value("${office.pool.max-processes:0}") int maxProcesses,
+            @Value("${office.pool.base-port:2002}") int basePort,
+            @Value("${jodconverter.local.max-tasks-per-process:10}") int maxTasksPerProcess,
+            @Value("${office.pool.max-consecutive-failures:3}") int maxConsecutiveFailures,
+            @Value("${office.pool.task-queue-timeout:30s}") Duration taskQueueTimeout,
+            @Value("${office.pool.idle-timeout:5m}") Duration idleTimeout,
+            @Value("${office.pool.working-dir:${java.io.tmpdir}}") File workingDir,
+            @Value("${office.pool.warm-up.enabled:true}") boolean warmUpEnabled,
+            ConversionMetrics metrics) {
+
+        OfficeProcessPool pool = new OfficeProcessPool(
+                this::createOfficeManager,
+                minProcesses,
+                maxProcesses,
+                basePort,
+                maxTasksPerProcess,
+                maxConsecutiveFailures,
+                taskQueueTimeout,
+                idleTimeout,
+                workingDir);
+        pool.setQueueWaitListener(wait -> metrics.recordQueueWait("office", wait));
+        pool.setFirstTaskListener(metrics::recordOfficeFirstTask);
+        pool.setStartUpListener(metrics::recordOfficeStartUp);
+        pool.setReadyListener(metrics::recordOfficePoolReady);
+        if (warmUpEnabled) {
+            pool.setWarmUp(new OfficeWarmUp(workingDir));
+            pool.setWarmUpListener(metrics::recordOfficeWarmUp);
+        }
+
+        return pool;
+    }
+
+    @Bean
+    public DocumentConverter documentConverter(OfficeProcessPool officeProcessPool) {
+        return LocalConverter.make(officeProcessPool);
+    }
+
+    private LocalOfficeManager createOfficeManager(int port) {
+        return LocalOfficeManager.builder()
+                .officeHome(officeHome)
+                .portNumbers(port)
+                .maxTasksPerProcess(0)
+                .taskExecutionTimeout(taskExecutionTimeout)
+                .processTimeout(processTimeout)
+                .build();
+    }
+}
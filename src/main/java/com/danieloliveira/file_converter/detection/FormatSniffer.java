@@ -0,0 +1,273 @@
+package com.danieloliveira.file_converter.detection;
+
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+@Component
+public class FormatSniffer {
+
+    private static final int HEADER_BYTES = 8 * 1024;
+    private static final long MAX_SCAN_BYTES = 16L * 1024 * 1024;
+    private static final int MAX_ZIP_ENTRIES = 64;
+    private static final int MAX_DIRECTORY_SECTORS = 16;
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] RIFF = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP = {'W', 'E', 'B', 'P'};
+    private static final byte[] PDF = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] ZIP = {'P', 'K', 3, 4};
+    private static final byte[] CFB = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+
+    private static final int ZIP_LOCAL_HEADER = 0x04034b50;
+    private static final int ZIP_CENTRAL_HEADER = 0x02014b50;
+    private static final int ZIP_END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int ZIP_END_RECORD = 22;
+    private static final int CFB_END_OF_CHAIN = 0xFFFFFFFE;
+
+    public Optional<ImageFormat> detectImage(MultipartFile file) throws IOException {
+        byte[] header = readAt(file, 0, 12);
+
+        if (startsWith(header, 0, PNG)) {
+            return Optional.of(ImageFormat.PNG);
+        }
+        if (startsWith(header, 0, JPEG)) {
+            return Optional.of(ImageFormat.JPEG);
+        }
+        if (startsWith(header, 0, RIFF) && startsWith(header, 8, WEBP)) {
+            return Optional.of(ImageFormat.WEBP);
+        }
+        return Optional.empty();
+    }
+
+    public Optional<DocFormat> detectDocument(MultipartFile file) throws IOException {
+        byte[] header = readAt(file, 0, HEADER_BYTES);
+
+        if (indexOf(header, PDF, 1024) >= 0) {
+            return Optional.of(DocFormat.PDF);
+        }
+        if (startsWith(header, 0, ZIP)) {
+            return detectOfficeOpenXml(file);
+        }
+        if (startsWith(header, 0, CFB)) {
+            return detectCompoundFile(file, header);
+        }
+        if (header.length > 0 && isText(header)) {
+            return Optional.of(DocFormat.TXT);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<DocFormat> detectOfficeOpenXml(MultipartFile file) throws IOException {
+        // Walk the local file headers, the part names tell the document type without inflating anything
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(file.getInputStream()))) {
+            byte[] fixed = new byte[30];
+            long scanned = 0;
+
+            for (int entry = 0; entry < MAX_ZIP_ENTRIES && scanned < MAX_SCAN_BYTES; entry++) {
+                input.readFully(fixed);
+                ByteBuffer header = ByteBuffer.wrap(fixed).order(ByteOrder.LITTLE_ENDIAN);
+                if (header.getInt(0) != ZIP_LOCAL_HEADER) {
+                    break;
+                }
+
+                boolean sizeInDescriptor = (header.getShort(6) & 0x08) != 0;
+                long compressedSize = Integer.toUnsignedLong(header.getInt(18));
+                int nameLength = Short.toUnsignedInt(header.getShort(26));
+                int extraLength = Short.toUnsignedInt(header.getShort(28));
+
+                byte[] name = new byte[nameLength];
+                input.readFully(name);
+                Optional<DocFormat> format = officeOpenXmlFormat(new String(name, StandardCharsets.UTF_8));
+                if (format.isPresent()) {
+                    return format;
+                }
+
+                if ((sizeInDescriptor && compressedSize == 0) || compressedSize == 0xFFFFFFFFL) {
+                    return detectFromCentralDirectory(file);
+                }
+                input.skipNBytes(extraLength + compressedSize);
+                scanned += fixed.length + nameLength + extraLength + compressedSize;
+            }
+        } catch (EOFException e) {
+            return Optional.empty();
+        }
+
+        return Optional.empty();
+    }
+
+    private static Optional<DocFormat> detectFromCentralDirectory(MultipartFile file) throws IOException {
+        // Streamed zips only record entry sizes after the data, so the part names have to come from the end of the file
+        int tailLength = (int) Math.min(file.getSize(), ZIP_END_RECORD + 0xFFFF);
+        byte[] tail = readAt(file, file.getSize() - tailLength, tailLength);
+        ByteBuffer buffer = ByteBuffer.wrap(tail).order(ByteOrder.LITTLE_ENDIAN);
+
+        int end = tail.length - ZIP_END_RECORD;
+        while (end >= 0 && buffer.getInt(end) != ZIP_END_OF_CENTRAL_DIRECTORY) {
+            end--;
+        }
+        if (end < 0) {
+            return Optional.empty();
+        }
+
+        long directoryOffset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+        int directoryLength = (int) Math.min(Integer.toUnsignedLong(buffer.getInt(end + 12)), HEADER_BYTES * 8L);
+        ByteBuffer directory = ByteBuffer.wrap(readAt(file, directoryOffset, directoryLength)).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int entry = 0; entry < MAX_ZIP_ENTRIES && directory.remaining() >= 46; entry++) {
+            int position = directory.position();
+            if (directory.getInt(position) != ZIP_CENTRAL_HEADER) {
+                break;
+            }
+
+            int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            if (directory.remaining() < 46 + nameLength) {
+                break;
+            }
+
+            String name = new String(directory.array(), position + 46, nameLength, StandardCharsets.UTF_8);
+            Optional<DocFormat> format = officeOpenXmlFormat(name);
+            if (format.isPresent()) {
+                return format;
+            }
+            directory.position(Math.min(directory.limit(), position + 46 + nameLength + extraLength + commentLength));
+        }
+
+        return Optional.empty();
+    }
+
+    private static Optional<DocFormat> officeOpenXmlFormat(String partName) {
+        if (partName.startsWith("word/")) {
+            return Optional.of(DocFormat.DOCX);
+        }
+        if (partName.startsWith("xl/")) {
+            return Optional.of(DocFormat.XLSX);
+        }
+        if (partName.startsWith("ppt/")) {
+            return Optional.of(DocFormat.PPTX);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<DocFormat> detectCompoundFile(MultipartFile file, byte[] header) throws IOException {
+        if (header.length < 512) {
+            return Optional.empty();
+        }
+
+        ByteBuffer cfbHeader = ByteBuffer.wrap(header, 0, 512).order(ByteOrder.LITTLE_ENDIAN);
+        int sectorSize = 1 << cfbHeader.getShort(0x1E);
+        if (sectorSize != 512 && sectorSize != 4096) {
+            return Optional.empty();
+        }
+
+        int sector = cfbHeader.getInt(0x30);
+        for (int read = 0; read < MAX_DIRECTORY_SECTORS && sector >= 0; read++) {
+            long offset = (sector + 1L) * sectorSize;
+            if (offset > MAX_SCAN_BYTES) {
+                break;
+            }
+
+            byte[] directory = offset + sectorSize <= header.length
+                    ? Arrays.copyOfRange(header, (int) offset, (int) offset + sectorSize)
+                    : readAt(file, offset, sectorSize);
+            Optional<DocFormat> format = compoundFileFormat(directory);
+            if (format.isPresent()) {
+                return format;
+            }
+
+            sector = nextSector(file, cfbHeader, sectorSize, sector);
+        }
+
+        return Optional.empty();
+    }
+
+    private static Optional<DocFormat> compoundFileFormat(byte[] directory) {
+        ByteBuffer entries = ByteBuffer.wrap(directory).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int entry = 0; entry + 128 <= directory.length; entry += 128) {
+            int nameBytes = Short.toUnsignedInt(entries.getShort(entry + 0x40));
+            if (nameBytes < 2 || nameBytes > 64) {
+                continue;
+            }
+
+            String name = new String(directory, entry, nameBytes - 2, StandardCharsets.UTF_16LE);
+            switch (name) {
+                case "WordDocument":
+                    return Optional.of(DocFormat.DOC);
+                case "Workbook", "Book":
+                    return Optional.of(DocFormat.XLS);
+                case "PowerPoint Document":
+                    return Optional.of(DocFormat.PPT);
+                default:
+                    break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static int nextSector(MultipartFile file, ByteBuffer cfbHeader, int sectorSize, int sector) throws IOException {
+        int entriesPerFatSector = sectorSize / 4;
+        int fatIndex = sector / entriesPerFatSector;
+        if (fatIndex >= 109) {
+            return CFB_END_OF_CHAIN;
+        }
+
+        int fatSector = cfbHeader.getInt(0x4C + fatIndex * 4);
+        long offset = (fatSector + 1L) * sectorSize + (long) (sector % entriesPerFatSector) * 4;
+        if (fatSector < 0 || offset > MAX_SCAN_BYTES) {
+            return CFB_END_OF_CHAIN;
+        }
+
+        byte[] next = readAt(file, offset, 4);
+        return next.length < 4 ? CFB_END_OF_CHAIN : ByteBuffer.wrap(next).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    private static boolean isText(byte[] header) {
+        for (byte b : header) {
+            int c = b & 0xFF;
+            if (c < 0x20 && c != '\t' && c != '\n' && c != '\r' && c != '\f' && c != 0x1B) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] readAt(MultipartFile file, long offset, int length) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            inputStream.skipNBytes(offset);
+            return inputStream.readNBytes(length);
+        } catch (EOFException e) {
+            return new byte[0];
+        }
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, byte[] prefix) {
+        return bytes.length >= offset + prefix.length
+                && Arrays.equals(bytes, offset, offset + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern, int limit) {
+        int last = Math.min(limit, bytes.length - pattern.length);
+        for (int i = 0; i <= last; i++) {
+            if (startsWith(bytes, i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,10 +1,16 @@
 package com.danieloliveira.file_converter.document.controller;
 
+import com.danieloliveira.file_converter.cache.model.ConversionResult;
 import com.danieloliveira.file_converter.document.exceptions.DocumentCorruptedOrEmptyException;
-import com.danieloliveira.file_converter.document.exceptions.InvalidDocumentFormatException;
 import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.model.PdfRenderOptions;
+import com.danieloliveira.file_converter.document.model.SupportedConversion;
 import com.danieloliveira.file_converter.document.service.DocumentConverterService;
+import com.danieloliveira.file_converter.document.service.PdfRenderService;
 import com.danieloliveira.file_converter.exceptions.ErrorMessage;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import com.danieloliveira.file_converter.storage.ConversionResponses;
+import com.danieloliveira.file_converter.storage.ZipResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,14 +19,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.util.Objects;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
 
 @RestController
 @RequestMapping("/api/v1/conversions/documents")
@@ -30,11 +43,16 @@ import java.util.Objects;
 public class DocumentConverterController {
 
     private final DocumentConverterService service;
+    private final PdfRenderService pdfRenderService;
+    private final ConversionResponses responses;
 
     @Operation(summary = "Convert to Standard PDF", description = "Converts DOCX, TXT, XLSX, XLS, PPTX and PPT files to a standard PDF format with embedded fonts.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "File converted successfully",
                     content = @Content(mediaType = "application/pdf")),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the result",
+                    content = @Content(mediaType = "application/pdf")),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The result still matches the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Bad Request: File is empty or corrupted",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
             @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Input format not supported",
@@ -43,52 +61,56 @@ public class DocumentConverterController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
     })
     @PostMapping(value = "/to-pdf", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<byte[]> toPDF(
+    public ResponseEntity<Resource> toPDF(
             @Parameter(description = "The document file to convert", required = true)
-            @RequestParam("file") MultipartFile document) throws IOException {
+            @RequestParam("file") MultipartFile document,
+            @Parameter(description = "ETag of an earlier result for the same file, answered with 304 Not Modified when it still matches")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, defaultValue = "") List<String> ifNoneMatch) throws IOException {
 
         if (document.isEmpty()) {
             throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
         }
 
-        byte[] convertedDocument = service.documentConverter(document, DocFormat.PDF);
+        ConversionResult convertedDocument = service.documentConverter(document, DocFormat.PDF, ifNoneMatch);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document_converted.pdf\"")
-                .body(convertedDocument);
+        return responses.of(convertedDocument, MediaType.APPLICATION_PDF, "document_converted.pdf");
     }
 
     @Operation(summary = "Convert to PDF/A (Archival)", description = "Converts documents to PDF/A-2b format, compliant with ISO 19005 standards for long-term archiving.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "PDF/A file created successfully",
                     content = @Content(mediaType = "application/pdf")),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the result",
+                    content = @Content(mediaType = "application/pdf")),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The result still matches the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Bad Request: File is empty or corrupted",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
             @ApiResponse(responseCode = "500", description = "Internal Server Error: Conversion failed",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
     })
     @PostMapping(value = "/to-pdfa", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<byte[]> toPDFA(
+    public ResponseEntity<Resource> toPDFA(
             @Parameter(description = "The document file to convert", required = true)
-            @RequestParam("file") MultipartFile document) throws IOException {
+            @RequestParam("file") MultipartFile document,
+            @Parameter(description = "ETag of an earlier result for the same file, answered with 304 Not Modified when it still matches")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, defaultValue = "") List<String> ifNoneMatch) throws IOException {
 
         if (document.isEmpty()) {
             throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
         }
 
-        byte[] convertedDocument = service.documentConverter(document, DocFormat.PDFA);
+        ConversionResult convertedDocument = service.documentConverter(document, DocFormat.PDFA, ifNoneMatch);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document_converted.pdf\"")
-                .body(convertedDocument);
+        return responses.of(convertedDocument, MediaType.APPLICATION_PDF, "document_converted.pdf");
     }
 
     @Operation(summary = "Convert to DOCX (Word)", description = "Converts text-based files (TXT) to Microsoft Word format.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "File converted successfully to DOCX",
                     content = @Content(mediaType = "application/vnd.openxmlformats-officedocument.wordprocessingml.document")),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the result",
+                    content = @Content(mediaType = "application/vnd.openxmlformats-officedocument.wordprocessingml.document")),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The result still matches the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Bad Request: File is empty",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
             @ApiResponse(responseCode = "415", description = "Unsupported Media Type: PDF input is not allowed for this endpoint",
@@ -97,49 +119,180 @@ public class DocumentConverterController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
     })
     @PostMapping(value = "/to-docx", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<byte[]> toDOCX(
+    public ResponseEntity<Resource> toDOCX(
             @Parameter(description = "The document file to convert (PDF is not allowed)", required = true)
-            @RequestParam("file") MultipartFile document) throws IOException {
+            @RequestParam("file") MultipartFile document,
+            @Parameter(description = "ETag of an earlier result for the same file, answered with 304 Not Modified when it still matches")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, defaultValue = "") List<String> ifNoneMatch) throws IOException {
 
         if (document.isEmpty()) {
             throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
         }
 
-        if (Objects.equals(document.getContentType(), DocFormat.PDF.getMimeType())) {
-            throw new InvalidDocumentFormatException("The provided file cannot be converted to the requested format.");
-        }
-
-        byte[] convertedDocument = service.documentConverter(document, DocFormat.DOCX);
+        ConversionResult convertedDocument = service.documentConverter(document, DocFormat.DOCX, ifNoneMatch);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.valueOf("application/vnd.openxmlformats-officedocument.wordprocessingml.document"))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document_converted.docx\"")
-                .body(convertedDocument);
+        return responses.of(convertedDocument, MediaType.valueOf("application/vnd.openxmlformats-officedocument.wordprocessingml.document"), "document_converted.docx");
     }
 
-    @Operation(summary = "Extract Text (TXT)", description = "Extracts plain text from documents, including PDFs, DOCX.")
+    @Operation(summary = "Extract Text (TXT)", description = "Extracts plain text from documents, including PDFs, DOCX, XLSX and PPTX. PDFs and Office Open XML documents are read natively without LibreOffice.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Text extracted successfully",
                     content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the result",
+                    content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The result still matches the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Bad Request: File is empty",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
             @ApiResponse(responseCode = "500", description = "Internal Server Error: Text extraction failed",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
     })
     @PostMapping(value = "/to-txt", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<byte[]> toTXT(
+    public ResponseEntity<Resource> toTXT(
             @Parameter(description = "The document file to extract text from", required = true)
-            @RequestParam("file") MultipartFile document) throws IOException {
+            @RequestParam("file") MultipartFile document,
+            @Parameter(description = "ETag of an earlier result for the same file, answered with 304 Not Modified when it still matches")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, defaultValue = "") List<String> ifNoneMatch) throws IOException {
+
+        if (document.isEmpty()) {
+            throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
+        }
+
+        ConversionResult convertedDocument = service.documentConverter(document, DocFormat.TXT, ifNoneMatch);
+
+        return responses.of(convertedDocument, MediaType.TEXT_PLAIN, "document_converted.txt");
+    }
+
+    @Operation(summary = "Export Spreadsheet (CSV)", description = "Exports the first sheet of a spreadsheet as comma-separated values. XLSX files are read natively, XLS files go through LibreOffice.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Spreadsheet exported successfully",
+                    content = @Content(mediaType = "text/csv")),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the result",
+                    content = @Content(mediaType = "text/csv")),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The result still matches the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Bad Request: File is empty",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Input is not a spreadsheet",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error: Export failed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/to-csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Resource> toCSV(
+            @Parameter(description = "The spreadsheet file to export", required = true)
+            @RequestParam("file") MultipartFile document,
+            @Parameter(description = "ETag of an earlier result for the same file, answered with 304 Not Modified when it still matches")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, defaultValue = "") List<String> ifNoneMatch) throws IOException {
 
         if (document.isEmpty()) {
             throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
         }
 
-        byte[] convertedDocument = service.documentConverter(document, DocFormat.TXT);
+        ConversionResult convertedDocument = service.documentConverter(document, DocFormat.CSV, ifNoneMatch);
+
+        return responses.of(convertedDocument, new MediaType("text", "csv", StandardCharsets.UTF_8), "document_converted.csv");
+    }
+
+    @Operation(summary = "Convert to several formats", description = "Loads the document once and exports it to every requested format. Formats handled by LibreOffice share a single document load. The results are returned as a ZIP archive, one entry per format.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "ZIP archive with one document per target format",
+                    content = @Content(mediaType = "application/zip")),
+            @ApiResponse(responseCode = "400", description = "Bad Request: File is empty or corrupted, or no target format was given",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Input format not supported",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error: Conversion failed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/multi", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> toMultipleFormats(
+            @Parameter(description = "The document file to convert", required = true)
+            @RequestParam("file") MultipartFile document,
+            @Parameter(description = "The target document formats", required = true)
+            @RequestParam("targetFormats") Set<DocFormat> targetFormats) throws IOException {
+
+        if (document.isEmpty()) {
+            throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
+        }
+
+        Map<DocFormat, Resource> convertedDocuments = service.documentConverter(document, targetFormats);
+
+        Map<String, Resource> entries = new LinkedHashMap<>();
+        convertedDocuments.forEach((format, resource) -> entries.put(
+                ZipResponseBody.entryName(document.getOriginalFilename(), format.name().toLowerCase(), format.getExtension()),
+                resource));
 
         return ResponseEntity.ok()
-                .contentType(MediaType.TEXT_PLAIN)
+                .contentType(MediaType.valueOf("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"documents_converted.zip\"")
+                .body(ZipResponseBody.of(entries, Deflater.DEFAULT_COMPRESSION));
+    }
+
+    @Operation(summary = "Stream Extracted Text (TXT)", description = "Extracts plain text from a PDF, DOCX, XLSX or PPTX file and streams it while extraction is still running. Large PDFs are split into page ranges that are extracted in parallel, Office Open XML documents are written part by part as they are parsed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Text is being streamed",
+                    content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "400", description = "Bad Request: File is empty",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Only PDF and Office Open XML input can be streamed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/to-txt/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> toTXTStream(
+            @Parameter(description = "The PDF or Office Open XML file to extract text from", required = true)
+            @RequestParam("file") MultipartFile document) throws IOException {
+
+        if (document.isEmpty()) {
+            throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
+        }
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document_converted.txt\"")
-                .body(convertedDocument);
+                .body(service.streamText(document));
+    }
+
+    @Operation(summary = "Render PDF pages to images", description = "Renders the pages of a PDF to PNG, JPEG or WEBP images with PDFBox and returns them as a ZIP archive, one entry per page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "ZIP archive with the rendered pages",
+                    content = @Content(mediaType = "application/zip")),
+            @ApiResponse(responseCode = "400", description = "Bad Request: File is empty or corrupted, or the render options are invalid",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Only PDF input can be rendered",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error: Rendering failed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/to-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> toImages(
+            @Parameter(description = "The PDF file to render", required = true)
+            @RequestParam("file") MultipartFile document,
+            @Parameter(description = "The target image format", required = true)
+            @RequestParam("targetFormat") ImageFormat targetFormat,
+            @Parameter(description = "Rendering resolution in dots per inch")
+            @RequestParam(value = "dpi", defaultValue = "150") int dpi,
+            @Parameter(description = "First page to render, starting at 1")
+            @RequestParam(value = "firstPage", defaultValue = "1") int firstPage,
+            @Parameter(description = "Last page to render, defaults to the last page of the document")
+            @RequestParam(value = "lastPage", required = false) Integer lastPage,
+            @Parameter(description = "Maximum width or height of each image in pixels, the page is scaled down to fit. Defaults to the server limit")
+            @RequestParam(value = "maxDimension", required = false) Integer maxDimension) throws IOException {
+
+        if (document.isEmpty()) {
+            throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
+        }
+
+        PdfRenderOptions options = new PdfRenderOptions(dpi, firstPage, lastPage, maxDimension);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.valueOf("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document_pages.zip\"")
+                .body(pdfRenderService.renderPages(document, targetFormat, options));
+    }
+
+    @Operation(summary = "Supported conversions", description = "Lists every source and target format pair the document endpoints accept, with the strategy that handles it.")
+    @ApiResponse(responseCode = "200", description = "Supported conversions returned successfully")
+    @GetMapping("/supported-conversions")
+    public ResponseEntity<List<SupportedConversion>> supportedConversions() {
+        return ResponseEntity.ok(service.getSupportedConversions());
     }
 }
@@ -0,0 +1,28 @@
+package com.danieloliveira.file_converter.document.controller;
+
+import com.danieloliveira.file_converter.document.model.OfficePoolStats;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/office")
+@RequiredArgsConstructor
+@Tag(name = "Office Processes", description = "Endpoints for inspecting the LibreOffice process pool.")
+public class OfficeProcessController {
+
+    private final OfficeProcessPool pool;
+
+    @Operation(summary = "Office process utilization", description = "Returns the pool size, queued tasks and per-process task counts, restarts and utilization.")
+    @ApiResponse(responseCode = "200", description = "Statistics returned successfully")
+    @GetMapping("/processes")
+    public ResponseEntity<OfficePoolStats> processes() {
+        return ResponseEntity.ok(pool.getStats());
+    }
+}
@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.document.exceptions;
+
+public class InvalidDocumentOptionsException extends RuntimeException {
+    public InvalidDocumentOptionsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.document.exceptions;
+
+public class InvalidRenderOptionsException extends RuntimeException {
+    public InvalidRenderOptionsException(String message) {
+        super(message);
+    }
+}
@@ -9,6 +9,7 @@ public enum DocFormat {
     PDF("application/pdf", "pdf"),
     PDFA("application/pdf", "pdf"),
     TXT("text/plain", "txt"),
+    CSV("text/csv", "csv"),
     XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
     XLS("application/vnd.ms-excel", "xls"),
     PPTX("application/vnd.openxmlformats-officedocument.presentationml.presentation", "pptx"),
@@ -0,0 +1,13 @@
+package com.danieloliveira.file_converter.document.model;
+
+import java.util.List;
+
+public record OfficePoolStats(
+        int minProcesses,
+        int maxProcesses,
+        int runningProcesses,
+        int idleProcesses,
+        int warmingProcesses,
+        int queuedTasks,
+        List<OfficeProcessStats> processes) {
+}
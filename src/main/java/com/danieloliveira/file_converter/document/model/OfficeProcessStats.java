@@ -0,0 +1,12 @@
+package com.danieloliveira.file_converter.document.model;
+
+public record OfficeProcessStats(
+        int port,
+        boolean busy,
+        long tasksCompleted,
+        long tasksFailed,
+        int restarts,
+        long uptimeMillis,
+        long busyMillis,
+        double utilization) {
+}
@@ -0,0 +1,4 @@
+package com.danieloliveira.file_converter.document.model;
+
+public record PdfRenderOptions(int dpi, int firstPage, Integer lastPage, Integer maxDimension) {
+}
@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.document.model;
+
+public record SupportedConversion(
+        DocFormat sourceFormat,
+        DocFormat targetFormat,
+        String strategy) {
+}
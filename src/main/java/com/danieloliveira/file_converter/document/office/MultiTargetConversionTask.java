@@ -0,0 +1,64 @@
+package com.danieloliveira.file_converter.document.office;
+
+import com.sun.star.frame.XStorable;
+import com.sun.star.lang.XComponent;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.task.AbstractLocalOfficeTask;
+
+import java.io.File;
+import java.util.Map;
+
+public class MultiTargetConversionTask extends AbstractLocalOfficeTask {
+
+    private final Map<File, DocumentFormat> targets;
+
+    public MultiTargetConversionTask(File source, DocumentFormat sourceFormat, Map<File, DocumentFormat> targets) {
+        super(new SourceDocumentSpecs() {
+            @Override
+            public File getFile() {
+                return source;
+            }
+
+            @Override
+            public DocumentFormat getFormat() {
+                return sourceFormat;
+            }
+        });
+        this.targets = targets;
+    }
+
+    public Map<File, DocumentFormat> getTargets() {
+        return targets;
+    }
+
+    @Override
+    public void execute(OfficeContext context) throws OfficeException {
+        XComponent document = loadDocument((LocalOfficeContext) context, source.getFile());
+
+        try {
+            DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+            XStorable storable = Lo.qi(XStorable.class, document);
+
+            for (Map.Entry<File, DocumentFormat> target : targets.entrySet()) {
+                Map<String, Object> storeProperties = target.getValue().getStoreProperties(family);
+                if (storeProperties == null) {
+                    throw new OfficeException("A " + family + " document cannot be stored as "
+                            + target.getValue().getExtension());
+                }
+
+                storable.storeToURL(LocalOfficeUtils.toUrl(target.getKey()), LocalOfficeUtils.toUnoProperties(storeProperties));
+            }
+        } catch (com.sun.star.uno.Exception e) {
+            throw new OfficeException("Could not store document: " + e.getMessage(), e);
+        } finally {
+            closeDocument(document);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.danieloliveira.file_converter.document.office;
+
+import com.danieloliveira.file_converter.document.model.OfficePoolStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class OfficePoolHealthIndicator implements HealthIndicator {
+
+    private final OfficeProcessPool pool;
+
+    @Override
+    public Health health() {
+        // The pool only reports running once its first processes have started and warmed up
+        if (!pool.isRunning()) {
+            return Health.outOfService().build();
+        }
+
+        OfficePoolStats stats = pool.getStats();
+        return Health.up()
+                .withDetail("processes", stats.runningProcesses())
+                .withDetail("idle", stats.idleProcesses())
+                .withDetail("warming", stats.warmingProcesses())
+                .withDetail("queued", stats.queuedTasks())
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.danieloliveira.file_converter.document.office;
+
+import com.danieloliveira.file_converter.document.model.OfficeProcessStats;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+class OfficeProcess {
+
+    private final int port;
+    private final IntFunction<OfficeManager> managerFactory;
+
+    private volatile OfficeManager manager;
+    private volatile long startedAt;
+    private volatile long busySince;
+    private volatile long lastUsedAt;
+
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong tasksCompleted = new AtomicLong();
+    private final AtomicLong tasksFailed = new AtomicLong();
+    private final AtomicInteger tasksSinceStart = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger restarts = new AtomicInteger();
+
+    OfficeProcess(int port, IntFunction<OfficeManager> managerFactory) {
+        this.port = port;
+        this.managerFactory = managerFactory;
+    }
+
+    void start() throws OfficeException {
+        OfficeManager newManager = managerFactory.apply(port);
+        try {
+            newManager.start();
+        } catch (OfficeException | RuntimeException e) {
+            // The manager is not published yet, so nobody else would stop a partly started office process
+            try {
+                newManager.stop();
+            } catch (OfficeException | RuntimeException stopFailure) {
+                e.addSuppressed(stopFailure);
+            }
+            throw e;
+        }
+
+        manager = newManager;
+        startedAt = System.nanoTime();
+        lastUsedAt = startedAt;
+        busyNanos.set(0);
+        tasksSinceStart.set(0);
+        consecutiveFailures.set(0);
+    }
+
+    void stop() throws OfficeException {
+        OfficeManager current = manager;
+        if (current != null && current.isRunning()) {
+            current.stop();
+        }
+    }
+
+    void restart() throws OfficeException {
+        stop();
+        start();
+        restarts.incrementAndGet();
+    }
+
+    void execute(OfficeTask task) throws OfficeException {
+        busySince = System.nanoTime();
+
+        try {
+            manager.execute(task);
+            tasksCompleted.incrementAndGet();
+            consecutiveFailures.set(0);
+        } catch (OfficeException | RuntimeException e) {
+            tasksFailed.incrementAndGet();
+            consecutiveFailures.incrementAndGet();
+            throw e;
+        } finally {
+            long now = System.nanoTime();
+            busyNanos.addAndGet(now - busySince);
+            busySince = 0;
+            lastUsedAt = now;
+            tasksSinceStart.incrementAndGet();
+        }
+    }
+
+    void warmUp(OfficeTask task) throws OfficeException {
+        manager.execute(task);
+    }
+
+    boolean isFresh() {
+        return tasksSinceStart.get() == 0;
+    }
+
+    boolean needsRestart(int maxTasksPerProcess, int maxConsecutiveFailures) {
+        return (maxTasksPerProcess > 0 && tasksSinceStart.get() >= maxTasksPerProcess)
+                || consecutiveFailures.get() >= maxConsecutiveFailures
+                || !manager.isRunning();
+    }
+
+    boolean idleLongerThan(long idleNanos) {
+        return System.nanoTime() - lastUsedAt > idleNanos;
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    OfficeProcessStats stats() {
+        long now = System.nanoTime();
+        long runningTask = busySince;
+        long busy = busyNanos.get() + (runningTask == 0 ? 0 : now - runningTask);
+        long uptime = Math.max(now - startedAt, 1);
+
+        return new OfficeProcessStats(
+                port,
+                runningTask != 0,
+                tasksCompleted.get(),
+                tasksFailed.get(),
+                restarts.get(),
+                uptime / 1_000_000,
+                busy / 1_000_000,
+                (double) busy / uptime);
+    }
+}
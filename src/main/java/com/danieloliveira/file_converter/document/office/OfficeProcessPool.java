@@ -0,0 +1,354 @@
+package com.danieloliveira.file_converter.document.office;
+
+import com.danieloliveira.file_converter.document.model.OfficePoolStats;
+import lombok.extern.slf4j.Slf4j;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.office.TemporaryFileMaker;
+import org.jodconverter.core.task.OfficeTask;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+@Slf4j
+public class OfficeProcessPool implements OfficeManager, TemporaryFileMaker {
+
+    private final IntFunction<OfficeManager> managerFactory;
+    private final int minProcesses;
+    private final int maxProcesses;
+    private final int maxTasksPerProcess;
+    private final int maxConsecutiveFailures;
+    private final Duration taskQueueTimeout;
+    private final Duration idleTimeout;
+    private final File workingDir;
+
+    private final NavigableSet<Integer> freePorts = new ConcurrentSkipListSet<>();
+    private final List<OfficeProcess> processes = new CopyOnWriteArrayList<>();
+    private final BlockingDeque<OfficeProcess> idleProcesses = new LinkedBlockingDeque<>();
+    private final AtomicInteger startingProcesses = new AtomicInteger();
+    private final AtomicInteger warmingProcesses = new AtomicInteger();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicLong temporaryFileCounter = new AtomicLong();
+
+    private ExecutorService lifecycleExecutor;
+    private ScheduledExecutorService maintenanceScheduler;
+    private volatile boolean running;
+    private volatile OfficeWarmUp warmUp;
+    private volatile Consumer<Duration> queueWaitListener = wait -> {
+    };
+    private volatile Consumer<Duration> warmUpListener = duration -> {
+    };
+    private volatile Consumer<Duration> firstTaskListener = duration -> {
+    };
+    private volatile BiConsumer<String, Duration> startUpListener = (trigger, duration) -> {
+    };
+    private volatile Consumer<Duration> readyListener = duration -> {
+    };
+
+    public OfficeProcessPool(IntFunction<OfficeManager> managerFactory, int minProcesses, int maxProcesses,
+                             int basePort, int maxTasksPerProcess, int maxConsecutiveFailures,
+                             Duration taskQueueTimeout, Duration idleTimeout, File workingDir) {
+        this.managerFactory = managerFactory;
+        this.maxProcesses = maxProcesses > 0 ? maxProcesses : Runtime.getRuntime().availableProcessors();
+        this.minProcesses = Math.max(1, Math.min(minProcesses, this.maxProcesses));
+        this.maxTasksPerProcess = maxTasksPerProcess;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+        this.taskQueueTimeout = taskQueueTimeout;
+        this.idleTimeout = idleTimeout;
+        this.workingDir = workingDir;
+
+        for (int i = 0; i < this.maxProcesses; i++) {
+            freePorts.add(basePort + i);
+        }
+    }
+
+    @Override
+    public void start() throws OfficeException {
+        long start = System.nanoTime();
+        lifecycleExecutor = Executors.newCachedThreadPool(daemonThreads("office-lifecycle-"));
+        maintenanceScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("office-maintenance-"));
+
+        List<CompletableFuture<Boolean>> startups = new ArrayList<>();
+        for (int i = 0; i < minProcesses; i++) {
+            startingProcesses.incrementAndGet();
+            startups.add(CompletableFuture.supplyAsync(this::startNewProcess, lifecycleExecutor));
+        }
+
+        if (!startups.stream().allMatch(CompletableFuture::join)) {
+            stop();
+            throw new OfficeException("Could not start the office process pool");
+        }
+
+        long checkInterval = Math.max(idleTimeout.toMillis() / 2, 1000);
+        maintenanceScheduler.scheduleWithFixedDelay(this::rebalance, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+
+        // The health indicator reports up from here, so this is the time the pool kept the node out of service
+        running = true;
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        readyListener.accept(duration);
+        log.info("Office process pool started with {} process(es), up to {}, in {}ms",
+                processes.size(), maxProcesses, duration.toMillis());
+    }
+
+    @Override
+    public void stop() throws OfficeException {
+        running = false;
+
+        if (maintenanceScheduler != null) {
+            maintenanceScheduler.shutdownNow();
+        }
+        if (lifecycleExecutor != null) {
+            lifecycleExecutor.shutdownNow();
+        }
+
+        for (OfficeProcess process : processes) {
+            stopProcess(process);
+        }
+        idleProcesses.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void execute(OfficeTask task) throws OfficeException {
+        if (!running) {
+            throw new OfficeException("The office process pool is not running");
+        }
+
+        long waitStart = System.nanoTime();
+        OfficeProcess process = acquire();
+        queueWaitListener.accept(Duration.ofNanos(System.nanoTime() - waitStart));
+
+        boolean firstTask = process.isFresh();
+        long taskStart = System.nanoTime();
+        try {
+            process.execute(task);
+        } finally {
+            if (firstTask) {
+                firstTaskListener.accept(Duration.ofNanos(System.nanoTime() - taskStart));
+            }
+            release(process);
+        }
+    }
+
+    @Override
+    public File makeTemporaryFile() {
+        return new File(workingDir, "tempfile_" + temporaryFileCounter.getAndIncrement());
+    }
+
+    @Override
+    public File makeTemporaryFile(String extension) {
+        return new File(workingDir, "tempfile_" + temporaryFileCounter.getAndIncrement() + "." + extension);
+    }
+
+    public void setQueueWaitListener(Consumer<Duration> queueWaitListener) {
+        this.queueWaitListener = queueWaitListener;
+    }
+
+    public void setWarmUp(OfficeWarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public void setWarmUpListener(Consumer<Duration> warmUpListener) {
+        this.warmUpListener = warmUpListener;
+    }
+
+    public void setFirstTaskListener(Consumer<Duration> firstTaskListener) {
+        this.firstTaskListener = firstTaskListener;
+    }
+
+    public void setStartUpListener(BiConsumer<String, Duration> startUpListener) {
+        this.startUpListener = startUpListener;
+    }
+
+    public void setReadyListener(Consumer<Duration> readyListener) {
+        this.readyListener = readyListener;
+    }
+
+    public OfficePoolStats getStats() {
+        return new OfficePoolStats(
+                minProcesses,
+                maxProcesses,
+                processes.size(),
+                idleProcesses.size(),
+                warmingProcesses.get(),
+                queuedTasks.get(),
+                processes.stream().map(OfficeProcess::stats).toList());
+    }
+
+    private OfficeProcess acquire() throws OfficeException {
+        OfficeProcess process = idleProcesses.pollFirst();
+        if (process != null) {
+            return process;
+        }
+
+        queuedTasks.incrementAndGet();
+        try {
+            scaleUp();
+            process = idleProcesses.pollFirst(taskQueueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OfficeException("Interrupted while waiting for an office process", e);
+        } finally {
+            queuedTasks.decrementAndGet();
+        }
+
+        if (process == null) {
+            throw new OfficeException("No office process became available within " + taskQueueTimeout.toMillis() + "ms");
+        }
+        return process;
+    }
+
+    private void release(OfficeProcess process) {
+        if (!running) {
+            return;
+        }
+
+        if (process.needsRestart(maxTasksPerProcess, maxConsecutiveFailures)) {
+            lifecycleExecutor.execute(() -> restartProcess(process));
+        } else {
+            idleProcesses.offerFirst(process);
+        }
+    }
+
+    private void scaleUp() {
+        while (true) {
+            int starting = startingProcesses.get();
+            if (processes.size() + starting >= maxProcesses || starting >= queuedTasks.get()) {
+                return;
+            }
+            if (startingProcesses.compareAndSet(starting, starting + 1)) {
+                lifecycleExecutor.execute(this::startNewProcess);
+            }
+        }
+    }
+
+    private void rebalance() {
+        while (processes.size() + startingProcesses.get() < minProcesses) {
+            startingProcesses.incrementAndGet();
+            lifecycleExecutor.execute(this::startNewProcess);
+        }
+
+        long idleNanos = idleTimeout.toNanos();
+        Iterator<OfficeProcess> leastRecentlyUsed = idleProcesses.descendingIterator();
+
+        while (leastRecentlyUsed.hasNext() && processes.size() > minProcesses && queuedTasks.get() == 0) {
+            OfficeProcess process = leastRecentlyUsed.next();
+            if (process.idleLongerThan(idleNanos) && idleProcesses.remove(process)) {
+                log.info("Stopping idle office process on port {}", process.getPort());
+                stopProcess(process);
+            }
+        }
+    }
+
+    private boolean startNewProcess() {
+        long start = System.nanoTime();
+        Integer port = freePorts.pollFirst();
+        OfficeProcess process = null;
+
+        try {
+            if (port == null) {
+                return false;
+            }
+
+            process = new OfficeProcess(port, managerFactory);
+            processes.add(process);
+            process.start();
+
+            warmUp(process);
+            startUpListener.accept("start", Duration.ofNanos(System.nanoTime() - start));
+            idleProcesses.offerFirst(process);
+            log.info("Started office process on port {}", port);
+            return true;
+        } catch (OfficeException | RuntimeException e) {
+            log.error("Could not start office process on port {}: {}", port, e.getMessage());
+            // A half-started process is stopped first, stopping it hands the port back
+            if (process != null) {
+                stopProcess(process);
+            } else if (port != null) {
+                freePorts.add(port);
+            }
+            return false;
+        } finally {
+            startingProcesses.decrementAndGet();
+        }
+    }
+
+    private void restartProcess(OfficeProcess process) {
+        long start = System.nanoTime();
+        try {
+            process.restart();
+            warmUp(process);
+            startUpListener.accept("restart", Duration.ofNanos(System.nanoTime() - start));
+            idleProcesses.offerFirst(process);
+            log.info("Restarted office process on port {}", process.getPort());
+        } catch (OfficeException | RuntimeException e) {
+            log.error("Could not restart office process on port {}: {}", process.getPort(), e.getMessage());
+            stopProcess(process);
+        }
+    }
+
+    private void warmUp(OfficeProcess process) {
+        OfficeWarmUp current = warmUp;
+        if (current == null) {
+            return;
+        }
+
+        // A failed warm-up only costs the first request its latency, the process itself is still usable
+        warmingProcesses.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            current.run(process::warmUp);
+
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            warmUpListener.accept(duration);
+            log.info("Warmed up office process on port {} in {}ms", process.getPort(), duration.toMillis());
+        } catch (OfficeException | RuntimeException e) {
+            log.warn("Could not warm up office process on port {}: {}", process.getPort(), e.getMessage());
+        } finally {
+            warmingProcesses.decrementAndGet();
+        }
+    }
+
+    private void stopProcess(OfficeProcess process) {
+        try {
+            process.stop();
+        } catch (OfficeException | RuntimeException e) {
+            log.warn("Could not stop office process on port {}: {}", process.getPort(), e.getMessage());
+        } finally {
+            processes.remove(process);
+            freePorts.add(process.getPort());
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.danieloliveira.file_converter.document.office;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.OfficeTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OfficeWarmUp {
+
+    private static final String TEMPLATE_LOCATION = "office-warm-up/";
+
+    private static final List<Template> TEMPLATES = List.of(
+            new Template("warm-up.fodt", DefaultDocumentFormatRegistry.FODT, DefaultDocumentFormatRegistry.DOCX),
+            new Template("warm-up.fods", DefaultDocumentFormatRegistry.FODS, DefaultDocumentFormatRegistry.XLSX),
+            new Template("warm-up.fodp", DefaultDocumentFormatRegistry.FODP, DefaultDocumentFormatRegistry.PPTX));
+
+    private final Path directory;
+    private Map<File, DocumentFormat> documents;
+
+    public OfficeWarmUp(File workingDir) {
+        this.directory = workingDir.toPath().resolve("office-warm-up");
+    }
+
+    void run(TaskRunner runner) throws OfficeException {
+        for (Map.Entry<File, DocumentFormat> document : prepare(runner).entrySet()) {
+            Path pdf = null;
+            try {
+                pdf = Files.createTempFile(directory, "warm-up-", ".pdf");
+                runner.execute(new MultiTargetConversionTask(document.getKey(), document.getValue(),
+                        Map.of(pdf.toFile(), DefaultDocumentFormatRegistry.PDF)));
+            } catch (IOException e) {
+                throw new OfficeException("Could not create the warm-up output file", e);
+            } finally {
+                deleteQuietly(pdf);
+            }
+        }
+    }
+
+    private synchronized Map<File, DocumentFormat> prepare(TaskRunner runner) throws OfficeException {
+        if (documents != null) {
+            return documents;
+        }
+
+        // The first process to warm up exports the templates to OOXML, every process then imports those documents
+        Map<File, DocumentFormat> prepared = new LinkedHashMap<>();
+        try {
+            Files.createDirectories(directory);
+
+            for (Template template : TEMPLATES) {
+                Path source = directory.resolve(template.resource());
+                try (InputStream inputStream = OfficeWarmUp.class.getClassLoader()
+                        .getResourceAsStream(TEMPLATE_LOCATION + template.resource())) {
+                    if (inputStream == null) {
+                        throw new OfficeException("Missing warm-up template " + template.resource());
+                    }
+                    Files.copy(inputStream, source, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                File document = directory.resolve("warm-up." + template.targetFormat().getExtension()).toFile();
+                runner.execute(new MultiTargetConversionTask(source.toFile(), template.sourceFormat(),
+                        Map.of(document, template.targetFormat())));
+                prepared.put(document, template.targetFormat());
+            }
+        } catch (IOException e) {
+            throw new OfficeException("Could not prepare the warm-up documents", e);
+        }
+
+        documents = prepared;
+        return documents;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    @FunctionalInterface
+    interface TaskRunner {
+
+        void execute(OfficeTask task) throws OfficeException;
+    }
+
+    private record Template(String resource, DocumentFormat sourceFormat, DocumentFormat targetFormat) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.danieloliveira.file_converter.document.service;
+
+import com.danieloliveira.file_converter.document.exceptions.InvalidDocumentFormatException;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.model.SupportedConversion;
+import com.danieloliveira.file_converter.document.service.strategy.DocumentConversionStrategy;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ConversionRouter {
+
+    private final Map<DocFormat, Map<DocFormat, DocumentConversionStrategy>> routes = new EnumMap<>(DocFormat.class);
+
+    @Getter
+    private final List<SupportedConversion> supportedConversions;
+
+    public ConversionRouter(List<DocumentConversionStrategy> strategies) {
+        // Strategies are already sorted by @Order, the first one that declares a pair handles it
+        for (DocFormat sourceFormat : DocFormat.values()) {
+            routes.put(sourceFormat, new EnumMap<>(DocFormat.class));
+        }
+        for (DocumentConversionStrategy strategy : strategies) {
+            strategy.getSupportedConversions().forEach((sourceFormat, targetFormats) -> {
+                for (DocFormat targetFormat : targetFormats) {
+                    routes.get(sourceFormat).putIfAbsent(targetFormat, strategy);
+                }
+            });
+        }
+
+        List<SupportedConversion> conversions = new ArrayList<>();
+        routes.forEach((sourceFormat, targets) -> targets.forEach((targetFormat, strategy) ->
+                conversions.add(new SupportedConversion(sourceFormat, targetFormat, strategy.getClass().getSimpleName()))));
+        this.supportedConversions = List.copyOf(conversions);
+    }
+
+    public DocumentConversionStrategy route(DocFormat sourceFormat, DocFormat targetFormat) {
+        DocumentConversionStrategy strategy = routes.get(sourceFormat).get(targetFormat);
+        if (strategy == null) {
+            throw new InvalidDocumentFormatException("The provided file cannot be converted to the requested format.");
+        }
+        return strategy;
+    }
+}
@@ -1,48 +1,200 @@
 package com.danieloliveira.file_converter.document.service;
 
-import com.danieloliveira.file_converter.document.exceptions.ConversionException;
+import com.danieloliveira.file_converter.cache.model.ConversionCacheKey;
+import com.danieloliveira.file_converter.cache.model.ConversionResult;
+import com.danieloliveira.file_converter.cache.service.ConversionCacheService;
+import com.danieloliveira.file_converter.concurrency.AdmissionController;
+import com.danieloliveira.file_converter.concurrency.ConversionThreads;
+import com.danieloliveira.file_converter.detection.FormatSniffer;
 import com.danieloliveira.file_converter.document.exceptions.InvalidDocumentFormatException;
+import com.danieloliveira.file_converter.document.exceptions.InvalidDocumentOptionsException;
 import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.model.SupportedConversion;
 import com.danieloliveira.file_converter.document.service.strategy.DocumentConversionStrategy;
+import com.danieloliveira.file_converter.document.service.strategy.JodConverterStrategy;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import com.danieloliveira.file_converter.metrics.ConversionTags;
+import com.danieloliveira.file_converter.storage.TemporaryFileResource;
+import io.micrometer.observation.Observation;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.MediaType;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class DocumentConverterService {
 
-    private final List<DocumentConversionStrategy> strategies;
+    private final ConversionRouter router;
+    private final FormatSniffer sniffer;
+    private final ConversionCacheService cache;
+    private final ConversionMetrics metrics;
+    private final ConversionThreads threads;
+    private final AdmissionController admission;
 
-    public byte[] documentConverter(MultipartFile originalFile, DocFormat targetFormat) throws IOException {
-        String incomingMimeType = originalFile.getContentType();
-        validateInputFormat(incomingMimeType);
+    public Resource documentConverter(MultipartFile originalFile, DocFormat targetFormat) throws IOException {
+        return documentConverter(originalFile, targetFormat, List.of()).resource();
+    }
+
+    public ConversionResult documentConverter(MultipartFile originalFile, DocFormat targetFormat,
+                                              Collection<String> ifNoneMatch) throws IOException {
+        DocFormat sourceFormat = metrics.observeStage("validation", ConversionTags.document(null, targetFormat),
+                () -> detectSourceFormat(originalFile, targetFormat));
+
+        DocumentConversionStrategy strategy = router.route(sourceFormat, targetFormat);
+
+        ConversionTags tags = ConversionTags.document(sourceFormat.name(), targetFormat).withStrategy(strategy);
+        metrics.recordInputSize(tags, originalFile.getSize());
+
+        ConversionCacheKey cacheKey = metrics.observeStage("cache-key", tags,
+                () -> cache.createKey(originalFile, targetFormat, ""));
+        if (cacheKey.matches(ifNoneMatch)) {
+            return ConversionResult.notModified(cacheKey.etag());
+        }
+
+        Optional<Resource> cached = cache.get(cacheKey);
+        if (cached.isPresent()) {
+            return new ConversionResult(cacheKey.etag(), cached.get());
+        }
+
+        TemporaryFileResource convertedDocument = convert(strategy, originalFile, sourceFormat, targetFormat, tags);
+        metrics.recordOutputSize(tags, convertedDocument.contentLength());
+        cache.put(cacheKey, convertedDocument.getFile().toPath());
+
+        return new ConversionResult(cacheKey.etag(), convertedDocument);
+    }
+
+    public Map<DocFormat, Resource> documentConverter(MultipartFile originalFile, Set<DocFormat> targetFormats)
+            throws IOException {
+        if (targetFormats.isEmpty()) {
+            throw new InvalidDocumentOptionsException("At least one target format is required");
+        }
+
+        DocFormat sourceFormat = detectSourceFormat(originalFile);
+        String source = sourceFormat.name();
+
+        Map<DocFormat, DocumentConversionStrategy> selected = new EnumMap<>(DocFormat.class);
+        for (DocFormat targetFormat : targetFormats) {
+            selected.put(targetFormat, router.route(sourceFormat, targetFormat));
+        }
+
+        String inputHash = cache.createKey(originalFile, targetFormats.iterator().next(), "").inputHash();
+        Map<DocFormat, Resource> results = new EnumMap<>(DocFormat.class);
+        Map<DocFormat, Path> officeTargets = new EnumMap<>(DocFormat.class);
+        JodConverterStrategy officeStrategy = null;
+
+        try {
+            for (Map.Entry<DocFormat, DocumentConversionStrategy> entry : selected.entrySet()) {
+                DocFormat targetFormat = entry.getKey();
+                DocumentConversionStrategy strategy = entry.getValue();
+                ConversionCacheKey cacheKey = new ConversionCacheKey(inputHash, targetFormat.name(), "");
+
+                Optional<Resource> cached = cache.get(cacheKey);
+                if (cached.isPresent()) {
+                    results.put(targetFormat, cached.get());
+                } else if (strategy instanceof JodConverterStrategy jodConverterStrategy) {
+                    officeStrategy = jodConverterStrategy;
+                    officeTargets.put(targetFormat, Files.createTempFile("converted-", "." + targetFormat.getExtension()));
+                } else {
+                    ConversionTags tags = ConversionTags.document(source, targetFormat).withStrategy(strategy);
+                    TemporaryFileResource convertedDocument =
+                            convert(strategy, originalFile, sourceFormat, targetFormat, tags);
+                    metrics.recordOutputSize(tags, convertedDocument.contentLength());
+                    cache.put(cacheKey, convertedDocument.getFile().toPath());
+                    results.put(targetFormat, convertedDocument);
+                }
+            }
 
-        DocumentConversionStrategy strategy = strategies.stream()
-                .filter(s -> s.canConvert(incomingMimeType, targetFormat))
-                .findFirst()
-                .orElseThrow(() -> new ConversionException("No conversion strategy found for this format pair."));
+            if (officeStrategy != null) {
+                JodConverterStrategy strategy = officeStrategy;
+                ConversionTags tags = ConversionTags.document(source, officeTargets.keySet()).withStrategy(strategy);
+                try (AdmissionController.Permit permit = admission.admit(strategy.getConversionClass())) {
+                    metrics.observeStage("convert", tags, () -> {
+                        strategy.convertAll(originalFile, sourceFormat, officeTargets);
+                        return null;
+                    });
+                }
 
-        return strategy.convert(originalFile, targetFormat);
+                for (Map.Entry<DocFormat, Path> target : officeTargets.entrySet()) {
+                    TemporaryFileResource convertedDocument = new TemporaryFileResource(target.getValue());
+                    metrics.recordOutputSize(ConversionTags.document(source, target.getKey()).withStrategy(strategy),
+                            convertedDocument.contentLength());
+                    ConversionCacheKey cacheKey = new ConversionCacheKey(inputHash, target.getKey().name(), "");
+                    cache.put(cacheKey, target.getValue());
+                    results.put(target.getKey(), convertedDocument);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path path : officeTargets.values()) {
+                Files.deleteIfExists(path);
+            }
+            for (Resource result : results.values()) {
+                if (result instanceof TemporaryFileResource) {
+                    Files.deleteIfExists(result.getFile().toPath());
+                }
+            }
+            throw e;
+        }
+
+        return results;
     }
 
+    public StreamingResponseBody streamText(MultipartFile originalFile) throws IOException {
+        DocFormat sourceFormat = detectSourceFormat(originalFile);
+        DocumentConversionStrategy strategy = router.route(sourceFormat, DocFormat.TXT);
+
+        if (!strategy.isStreaming()) {
+            throw new InvalidDocumentFormatException("Only PDF and Office Open XML files can be streamed as text.");
+        }
 
-    private void validateInputFormat(String mimeType) {
-        if (mimeType == null) throw new InvalidDocumentFormatException("MimeType is null");
+        ConversionTags tags = ConversionTags.document(sourceFormat.name(), DocFormat.TXT).withStrategy(strategy);
+        metrics.recordInputSize(tags, originalFile.getSize());
 
-        MediaType mediaType = MediaType.parseMediaType(mimeType);
+        // Admitted once the body runs, a response that is never written holds no capacity
+        return outputStream -> {
+            try (AdmissionController.Permit permit = admission.admit(strategy.getConversionClass())) {
+                metrics.observeStage("convert", tags, () -> {
+                    strategy.convert(originalFile, sourceFormat, DocFormat.TXT, outputStream);
+                    return null;
+                });
+            }
+        };
+    }
+
+    public List<SupportedConversion> getSupportedConversions() {
+        return router.getSupportedConversions();
+    }
+
+    public DocFormat detectSourceFormat(MultipartFile file, DocFormat targetFormat) throws IOException {
+        DocFormat sourceFormat = detectSourceFormat(file);
+        router.route(sourceFormat, targetFormat);
+        return sourceFormat;
+    }
+
+    private DocFormat detectSourceFormat(MultipartFile file) throws IOException {
+        return sniffer.detectDocument(file)
+                .orElseThrow(() -> new InvalidDocumentFormatException("The provided file is not a supported document format."));
+    }
 
-        boolean isSupported = Arrays.stream(DocFormat.values())
-                .map(fmt -> MediaType.parseMediaType(fmt.getMimeType()))
-                .anyMatch(supported -> supported.includes(mediaType));
+    private TemporaryFileResource convert(DocumentConversionStrategy strategy, MultipartFile file, DocFormat sourceFormat,
+                                          DocFormat targetFormat, ConversionTags tags) throws IOException {
+        Observation.CheckedCallable<TemporaryFileResource, IOException> conversion = () -> metrics.observeStage("convert", tags,
+                () -> TemporaryFileResource.write(targetFormat.getExtension(),
+                        outputStream -> strategy.convert(file, sourceFormat, targetFormat, outputStream)));
 
-        if (!isSupported) {
-            throw new InvalidDocumentFormatException("Format no supported: " + mimeType);
+        try (AdmissionController.Permit permit = admission.admit(strategy.getConversionClass())) {
+            return strategy.getConversionClass().isCpuBound() ? threads.compute(conversion) : conversion.call();
         }
     }
 }
@@ -0,0 +1,84 @@
+package com.danieloliveira.file_converter.document.service;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class PdfDocuments implements Closeable {
+
+    // Loading is the expensive part, so every page task reuses a document another task has finished with
+    private final Path pdf;
+    private final long maxMainMemoryBytes;
+    private final Deque<PDDocument> idle = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean closed;
+
+    public PdfDocuments(Path pdf, long maxMainMemoryBytes) {
+        this.pdf = pdf;
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+    }
+
+    public PDDocument borrow() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("The PDF is no longer being processed");
+            }
+            PDDocument document = idle.pollFirst();
+            if (document != null) {
+                return document;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return PDDocument.load(pdf.toFile(), MemoryUsageSetting.setupMixed(maxMainMemoryBytes));
+    }
+
+    public void giveBack(PDDocument document) {
+        if (document == null) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.offerFirst(document);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(document);
+    }
+
+    @Override
+    public void close() {
+        // Documents still borrowed by running tasks are closed when they are given back
+        List<PDDocument> documents;
+        lock.lock();
+        try {
+            closed = true;
+            documents = new ArrayList<>(idle);
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+        documents.forEach(PdfDocuments::closeQuietly);
+    }
+
+    private static void closeQuietly(PDDocument document) {
+        try {
+            document.close();
+        } catch (IOException e) {
+            // Nothing was written through the document, there is nothing left to flush
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.danieloliveira.file_converter.document.service;
+
+import com.danieloliveira.file_converter.concurrency.AdmissionController;
+import com.danieloliveira.file_converter.concurrency.ConversionThreads;
+import com.danieloliveira.file_converter.detection.FormatSniffer;
+import com.danieloliveira.file_converter.document.exceptions.ConversionException;
+import com.danieloliveira.file_converter.document.exceptions.DocumentCorruptedOrEmptyException;
+import com.danieloliveira.file_converter.document.exceptions.InvalidDocumentFormatException;
+import com.danieloliveira.file_converter.document.exceptions.InvalidRenderOptionsException;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.model.PdfRenderOptions;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import com.danieloliveira.file_converter.image.service.ImageConverterService;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import com.danieloliveira.file_converter.metrics.ConversionTags;
+import com.danieloliveira.file_converter.storage.LocalUpload;
+import com.danieloliveira.file_converter.storage.TemporaryFileResource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Slf4j
+@Service
+public class PdfRenderService {
+
+    private static final float POINTS_PER_INCH = 72f;
+
+    private final ImageConverterService imageConverterService;
+    private final FormatSniffer sniffer;
+    private final ConversionMetrics metrics;
+    private final AdmissionController admission;
+    private final int minDpi;
+    private final int maxDpi;
+    private final int maxPages;
+    private final int maxDimension;
+    private final int workers;
+    private final long maxMainMemoryBytes;
+    private final ExecutorService executor;
+
+    public PdfRenderService(
+            ImageConverterService imageConverterService,
+            FormatSniffer sniffer,
+            ConversionMetrics metrics,
+            AdmissionController admission,
+            @Value("${conversion.pdf-render.min-dpi:36}") int minDpi,
+            @Value("${conversion.pdf-render.max-dpi:300}") int maxDpi,
+            @Value("${conversion.pdf-render.max-pages:200}") int maxPages,
+            @Value("${conversion.pdf-render.max-dimension:4096}") int maxDimension,
+            @Value("${conversion.pdf-render.workers:0}") int workers,
+            @Value("${conversion.pdf-render.max-main-memory:32MB}") DataSize maxMainMemory) {
+
+        this.imageConverterService = imageConverterService;
+        this.sniffer = sniffer;
+        this.metrics = metrics;
+        this.admission = admission;
+        this.minDpi = minDpi;
+        this.maxDpi = maxDpi;
+        this.maxPages = maxPages;
+        this.maxDimension = maxDimension;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.maxMainMemoryBytes = maxMainMemory.toBytes();
+
+        this.executor = Executors.newFixedThreadPool(this.workers, ConversionThreads.cpuThreads("pdf-render-"));
+    }
+
+    public StreamingResponseBody renderPages(MultipartFile file, ImageFormat targetFormat, PdfRenderOptions options)
+            throws IOException {
+
+        if (sniffer.detectDocument(file).filter(format -> format == DocFormat.PDF).isEmpty()) {
+            throw new InvalidDocumentFormatException("Only PDF files can be rendered to images.");
+        }
+        if (options.dpi() < minDpi || options.dpi() > maxDpi) {
+            throw new InvalidRenderOptionsException("DPI must be between " + minDpi + " and " + maxDpi);
+        }
+        if (options.maxDimension() != null && (options.maxDimension() < 1 || options.maxDimension() > maxDimension)) {
+            throw new InvalidRenderOptionsException("Max dimension must be between 1 and " + maxDimension);
+        }
+
+        LocalUpload upload = LocalUpload.of(file, "pdf-render-", ".pdf");
+        try {
+            Path pdf = upload.getPath();
+            int pageCount = countPages(pdf);
+
+            int firstPage = options.firstPage();
+            int lastPage = options.lastPage() == null ? pageCount : options.lastPage();
+            if (firstPage < 1 || lastPage < firstPage || lastPage > pageCount) {
+                throw new InvalidRenderOptionsException("Invalid page range " + firstPage + "-" + lastPage
+                        + ", the document has " + pageCount + " page(s)");
+            }
+            if (lastPage - firstPage + 1 > maxPages) {
+                throw new InvalidRenderOptionsException("At most " + maxPages + " pages can be rendered at once");
+            }
+
+            ConversionTags tags = ConversionTags.document(DocFormat.PDF.name(), targetFormat).withStrategy(this);
+            metrics.recordInputSize(tags, file.getSize());
+            long estimatedBytes = estimateRenderBytes(pdf, firstPage, lastPage, options);
+
+            // Admitted once the body runs, a response that is never written holds no capacity
+            return outputStream -> {
+                try (upload; AdmissionController.Permit permit = admission.admitImage(estimatedBytes)) {
+                    writeZip(pdf, firstPage, lastPage, targetFormat, options, tags, outputStream);
+                }
+            };
+        } catch (RuntimeException e) {
+            upload.close();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void writeZip(Path pdf, int firstPage, int lastPage, ImageFormat targetFormat, PdfRenderOptions options,
+                          ConversionTags tags, OutputStream outputStream) throws IOException {
+
+        // Pages are submitted from here as they are written, so a worker never waits for a slow client and the
+        // shared pool stays free for other requests
+        int pages = lastPage - firstPage + 1;
+        int window = workers * 2;
+        List<CompletableFuture<TemporaryFileResource>> results =
+                Stream.generate(CompletableFuture<TemporaryFileResource>::new).limit(pages).toList();
+        List<Future<?>> tasks = new ArrayList<>();
+        PdfDocuments documents = new PdfDocuments(pdf, maxMainMemoryBytes);
+
+        String extension = targetFormat.name().toLowerCase();
+        int digits = Math.max(3, String.valueOf(lastPage).length());
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        zip.setLevel(Deflater.NO_COMPRESSION);
+
+        try {
+            int next = 0;
+            for (; next < Math.min(window, pages); next++) {
+                tasks.add(submitPage(documents, firstPage - 1 + next, targetFormat, options, tags, results.get(next)));
+            }
+
+            for (int i = 0; i < pages; i++) {
+                TemporaryFileResource page = results.get(i).get();
+                String entryName = String.format("page-%0" + digits + "d.%s", firstPage + i, extension);
+
+                zip.putNextEntry(new ZipEntry(entryName));
+                try (InputStream inputStream = page.getInputStream()) {
+                    inputStream.transferTo(zip);
+                }
+                zip.closeEntry();
+                zip.flush();
+
+                if (next < pages) {
+                    tasks.add(submitPage(documents, firstPage - 1 + next, targetFormat, options, tags, results.get(next)));
+                    next++;
+                }
+            }
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("PDF rendering was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ConversionException("Error rendering PDF page: " + e.getCause().getMessage());
+        } finally {
+            tasks.forEach(task -> task.cancel(true));
+            discardPending(results);
+            documents.close();
+        }
+    }
+
+    private Future<?> submitPage(PdfDocuments documents, int pageIndex, ImageFormat targetFormat,
+                                 PdfRenderOptions options, ConversionTags tags,
+                                 CompletableFuture<TemporaryFileResource> result) {
+
+        return executor.submit(() -> {
+            PDDocument document = null;
+            try {
+                document = documents.borrow();
+                PDFRenderer renderer = new PDFRenderer(document);
+                float scale = scale(document.getPage(pageIndex), options);
+                BufferedImage image = metrics.observeStage("render", tags,
+                        () -> renderer.renderImage(pageIndex, scale, ImageType.RGB));
+                TemporaryFileResource encoded = imageConverterService.encode(image, targetFormat, tags);
+                if (!result.complete(encoded)) {
+                    Files.deleteIfExists(encoded.getFile().toPath());
+                }
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                documents.giveBack(document);
+            }
+        });
+    }
+
+    private float scale(PDPage page, PdfRenderOptions options) {
+        // Without an explicit limit the configured maximum still caps the rendered image
+        float scale = options.dpi() / POINTS_PER_INCH;
+        int limit = options.maxDimension() != null ? options.maxDimension() : maxDimension;
+
+        PDRectangle cropBox = page.getCropBox();
+        float longestSide = Math.max(cropBox.getWidth(), cropBox.getHeight()) * scale;
+        if (longestSide > limit) {
+            scale *= limit / longestSide;
+        }
+        return scale;
+    }
+
+    private long estimateRenderBytes(Path pdf, int firstPage, int lastPage, PdfRenderOptions options) {
+        // Up to one page per worker is held as an RGB image at the same time
+        try (PDDocument document = load(pdf)) {
+            long largestPixels = 0;
+            for (int pageIndex = firstPage - 1; pageIndex < lastPage; pageIndex++) {
+                PDPage page = document.getPage(pageIndex);
+                float scale = scale(page, options);
+                PDRectangle cropBox = page.getCropBox();
+                long pixels = (long) Math.ceil(cropBox.getWidth() * scale) * (long) Math.ceil(cropBox.getHeight() * scale);
+                largestPixels = Math.max(largestPixels, pixels);
+            }
+            return largestPixels * Integer.BYTES * Math.min(workers, lastPage - firstPage + 1);
+        } catch (IOException e) {
+            throw new DocumentCorruptedOrEmptyException("The provided file is not a readable PDF.");
+        }
+    }
+
+    private int countPages(Path pdf) {
+        try (PDDocument document = load(pdf)) {
+            return document.getNumberOfPages();
+        } catch (IOException e) {
+            throw new DocumentCorruptedOrEmptyException("The provided file is not a readable PDF.");
+        }
+    }
+
+    private PDDocument load(Path pdf) throws IOException {
+        return PDDocument.load(pdf.toFile(), MemoryUsageSetting.setupMixed(maxMainMemoryBytes));
+    }
+
+    private static void discardPending(List<CompletableFuture<TemporaryFileResource>> results) {
+        for (CompletableFuture<TemporaryFileResource> result : results) {
+            if (result.cancel(false) || result.isCompletedExceptionally()) {
+                continue;
+            }
+
+            try {
+                Files.deleteIfExists(result.join().getFile().toPath());
+            } catch (IOException e) {
+                log.debug("Could not discard rendered page: {}", e.getMessage());
+            }
+        }
+    }
+}
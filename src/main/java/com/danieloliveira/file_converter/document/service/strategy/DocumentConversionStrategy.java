@@ -1,13 +1,24 @@
 package com.danieloliveira.file_converter.document.service.strategy;
 
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
 import com.danieloliveira.file_converter.document.model.DocFormat;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
 
 public interface DocumentConversionStrategy {
 
-    boolean canConvert(String sourceMimeType, DocFormat targetFormat);
+    Map<DocFormat, Set<DocFormat>> getSupportedConversions();
 
-    byte[] convert(MultipartFile file, DocFormat targetFormat) throws IOException;
+    default boolean isStreaming() {
+        return false;
+    }
+
+    void convert(MultipartFile file, DocFormat sourceFormat, DocFormat targetFormat, OutputStream outputStream)
+            throws IOException;
+
+    ConversionClass getConversionClass();
 }
@@ -1,7 +1,12 @@
 package com.danieloliveira.file_converter.document.service.strategy;
 
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
 import com.danieloliveira.file_converter.document.exceptions.ConversionException;
 import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.office.MultiTargetConversionTask;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import com.danieloliveira.file_converter.storage.FileBackedMultipartFile;
+import com.danieloliveira.file_converter.storage.LocalUpload;
 import lombok.RequiredArgsConstructor;
 import org.jodconverter.core.DocumentConverter;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
@@ -11,60 +16,114 @@ import org.jodconverter.core.office.OfficeException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
 public class JodConverterStrategy implements DocumentConversionStrategy {
 
+    private static final Map<DocFormat, DocumentFormat> SOURCE_FORMATS = sourceFormats();
+    private static final Map<DocFormat, DocumentFormat> TARGET_FORMATS = targetFormats();
+    private static final Map<DocFormat, Set<DocFormat>> SUPPORTED_CONVERSIONS = supportedConversions();
+
     private final DocumentConverter converter;
+    private final OfficeProcessPool officeProcessPool;
 
     @Override
-    public boolean canConvert(String sourceMimeType, DocFormat targetFormat) {
-
-        boolean isSourceExcel = sourceMimeType.contains("spreadsheet") || sourceMimeType.contains("excel");
-        boolean isSourcePPT = sourceMimeType.contains("presentation") || sourceMimeType.contains("powerpoint");
-
-        boolean isTargetTxt = targetFormat == DocFormat.TXT;
-
-
-        return (!isSourceExcel && !isSourcePPT) || !isTargetTxt;
+    public Map<DocFormat, Set<DocFormat>> getSupportedConversions() {
+        return SUPPORTED_CONVERSIONS;
     }
 
     @Override
-    public byte[] convert(MultipartFile file, DocFormat targetFormat) {
-        DocumentFormat jodFormat = resolveJodFormat(targetFormat);
-
-        try (InputStream inputStream = file.getInputStream();
-                ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    public ConversionClass getConversionClass() {
+        return ConversionClass.OFFICE;
+    }
 
-            converter.convert(inputStream)
-                    .to(baos)
-                    .as(jodFormat)
-                    .execute();
+    @Override
+    public void convert(MultipartFile file, DocFormat sourceFormat, DocFormat targetFormat, OutputStream outputStream) {
+        DocumentFormat jodFormat = TARGET_FORMATS.get(targetFormat);
+
+        try {
+            // Spooled uploads already live on disk, so LibreOffice can load them without another copy
+            if (file instanceof FileBackedMultipartFile fileBacked) {
+                converter.convert(fileBacked.getPath().toFile())
+                        .as(SOURCE_FORMATS.get(sourceFormat))
+                        .to(outputStream, false)
+                        .as(jodFormat)
+                        .execute();
+                return;
+            }
+
+            try (InputStream inputStream = file.getInputStream()) {
+                converter.convert(inputStream)
+                        .as(SOURCE_FORMATS.get(sourceFormat))
+                        .to(outputStream, false)
+                        .as(jodFormat)
+                        .execute();
+            }
+        } catch (IOException | OfficeException e) {
+            throw new ConversionException("JOD Conversion failed: " + e.getMessage());
+        }
+    }
 
-            return baos.toByteArray();
+    public void convertAll(MultipartFile file, DocFormat sourceFormat, Map<DocFormat, Path> targets) {
+        Map<File, DocumentFormat> jodTargets = new LinkedHashMap<>();
+        targets.forEach((format, path) -> jodTargets.put(path.toFile(), TARGET_FORMATS.get(format)));
 
+        try (LocalUpload source = LocalUpload.of(file, "office-source-", "." + sourceFormat.getExtension())) {
+            officeProcessPool.execute(new MultiTargetConversionTask(source.getPath().toFile(),
+                    SOURCE_FORMATS.get(sourceFormat), jodTargets));
         } catch (IOException | OfficeException e) {
             throw new ConversionException("JOD Conversion failed: " + e.getMessage());
         }
     }
 
-    private DocumentFormat resolveJodFormat(DocFormat targetFormat) {
-        if (targetFormat == DocFormat.PDF) {
-            return createPdfFormat(false);
-        } else if (targetFormat == DocFormat.PDFA) {
-            return createPdfFormat(true);
-        } else {
-            return DefaultDocumentFormatRegistry.getFormatByExtension(targetFormat.getExtension());
+    private static Map<DocFormat, DocumentFormat> sourceFormats() {
+        // PDF/A and CSV only exist as export variants, uploads of them are detected as PDF and TXT
+        Map<DocFormat, DocumentFormat> formats = new EnumMap<>(DocFormat.class);
+        for (DocFormat format : DocFormat.values()) {
+            if (format != DocFormat.PDFA && format != DocFormat.CSV) {
+                formats.put(format, DefaultDocumentFormatRegistry.getFormatByExtension(format.getExtension()));
+            }
         }
+        return Collections.unmodifiableMap(formats);
+    }
+
+    private static Map<DocFormat, DocumentFormat> targetFormats() {
+        Map<DocFormat, DocumentFormat> formats = new EnumMap<>(SOURCE_FORMATS);
+        formats.put(DocFormat.CSV, DefaultDocumentFormatRegistry.CSV);
+        formats.put(DocFormat.PDF, createPdfFormat(false));
+        formats.put(DocFormat.PDFA, createPdfFormat(true));
+        return Collections.unmodifiableMap(formats);
+    }
+
+    private static Map<DocFormat, Set<DocFormat>> supportedConversions() {
+        // LibreOffice opens PDFs as drawings, which can only be stored as PDF again
+        Map<DocFormat, Set<DocFormat>> conversions = new EnumMap<>(DocFormat.class);
+        SOURCE_FORMATS.forEach((sourceFormat, jodSourceFormat) -> {
+            Set<DocFormat> targets = EnumSet.noneOf(DocFormat.class);
+            TARGET_FORMATS.forEach((targetFormat, jodTargetFormat) -> {
+                if (jodTargetFormat.getStoreProperties(jodSourceFormat.getInputFamily()) != null) {
+                    targets.add(targetFormat);
+                }
+            });
+            conversions.put(sourceFormat, Collections.unmodifiableSet(targets));
+        });
+        return Collections.unmodifiableMap(conversions);
     }
 
-    private DocumentFormat createPdfFormat(boolean isPdfA) {
+    private static DocumentFormat createPdfFormat(boolean isPdfA) {
         Map<String, Object> filterData = new HashMap<>();
         filterData.put("Quality", 100);
         filterData.put("ExportBookmarks", true);
@@ -81,8 +140,9 @@ public class JodConverterStrategy implements DocumentConversionStrategy {
 
         return DocumentFormat.builder()
                 .from(DefaultDocumentFormatRegistry.PDF)
-                .storeProperty(DocumentFamily.TEXT, "FilterData", filterData)
-                .storeProperty(DocumentFamily.DRAWING, "FilterData", filterData)
+                .storeProperty(DocumentFamily.TEXT, "FilterData", Collections.unmodifiableMap(filterData))
+                .storeProperty(DocumentFamily.DRAWING, "FilterData", Collections.unmodifiableMap(filterData))
+                .unmodifiable(true)
                 .build();
     }
 }
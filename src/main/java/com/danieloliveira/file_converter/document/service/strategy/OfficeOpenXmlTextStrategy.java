@@ -0,0 +1,577 @@
+package com.danieloliveira.file_converter.document.service.strategy;
+
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+import com.danieloliveira.file_converter.document.exceptions.TextExtractionException;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.storage.LocalUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.StreamFilter;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+@Component
+@Order(2)
+public class OfficeOpenXmlTextStrategy implements DocumentConversionStrategy {
+
+    private static final Map<DocFormat, Set<DocFormat>> SUPPORTED_CONVERSIONS = Map.of(
+            DocFormat.DOCX, Set.of(DocFormat.TXT),
+            DocFormat.XLSX, Set.of(DocFormat.TXT, DocFormat.CSV),
+            DocFormat.PPTX, Set.of(DocFormat.TXT));
+
+    private static final String OFFICE_DOCUMENT = "/officeDocument";
+    private static final String SHARED_STRINGS = "/sharedStrings";
+    private static final String MARKUP_COMPATIBILITY = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private final long maxSharedStringChars;
+
+    public OfficeOpenXmlTextStrategy(
+            @Value("${conversion.office-text.max-shared-strings:64MB}") DataSize maxSharedStrings) {
+        this.maxSharedStringChars = maxSharedStrings.toBytes() / 2;
+    }
+
+    @Override
+    public Map<DocFormat, Set<DocFormat>> getSupportedConversions() {
+        return SUPPORTED_CONVERSIONS;
+    }
+
+    @Override
+    public ConversionClass getConversionClass() {
+        return ConversionClass.OFFICE_TEXT;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public void convert(MultipartFile file, DocFormat sourceFormat, DocFormat targetFormat, OutputStream outputStream)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+
+        // The parts are read straight from the zip and written out while they are parsed, nothing is laid out
+        try (LocalUpload upload = LocalUpload.of(file, "office-text-", "." + sourceFormat.getExtension());
+             ZipFile zip = new ZipFile(upload.getPath().toFile())) {
+
+            String mainPart = relationships(zip, "").targetOfType(OFFICE_DOCUMENT);
+            if (mainPart == null) {
+                throw new TextExtractionException("The document has no main part");
+            }
+
+            switch (sourceFormat) {
+                case DOCX -> writeDocument(zip, mainPart, writer);
+                case XLSX -> writeWorkbook(zip, mainPart, targetFormat == DocFormat.CSV, writer);
+                case PPTX -> writePresentation(zip, mainPart, writer);
+                default -> throw new TextExtractionException("Unsupported source format " + sourceFormat);
+            }
+            writer.flush();
+        } catch (IOException | XMLStreamException e) {
+            throw new TextExtractionException("Error extracting text from " + sourceFormat + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeDocument(ZipFile zip, String part, Writer writer) throws IOException, XMLStreamException {
+        try (Part document = Part.open(zip, part)) {
+            XMLStreamReader reader = document.reader();
+            int runDepth = 0;
+            boolean inText = false;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "r" -> runDepth++;
+                            case "t" -> inText = runDepth > 0;
+                            // Tab stops in the paragraph properties share the element name with tab characters
+                            case "tab" -> writeIf(runDepth > 0, '\t', writer);
+                            case "br", "cr" -> writeIf(runDepth > 0, '\n', writer);
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "r" -> runDepth--;
+                            case "t" -> inText = false;
+                            case "p" -> writer.write('\n');
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (inText) {
+                            writer.write(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeWorkbook(ZipFile zip, String part, boolean csv, Writer writer)
+            throws IOException, XMLStreamException {
+        Relationships relationships = relationships(zip, part);
+        String sharedStringsPart = relationships.targetOfType(SHARED_STRINGS);
+        List<String> sharedStrings = sharedStringsPart == null ? List.of() : readSharedStrings(zip, sharedStringsPart);
+
+        List<Sheet> sheets = new ArrayList<>();
+        try (Part workbook = Part.open(zip, part)) {
+            XMLStreamReader reader = workbook.reader();
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("sheet")) {
+                    String target = relationships.target(relationshipId(reader));
+                    if (target != null) {
+                        sheets.add(new Sheet(attribute(reader, "name"), target));
+                    }
+                }
+            }
+        }
+
+        // A CSV file only holds one table, so like LibreOffice only the first sheet is exported
+        List<Sheet> exported = csv && !sheets.isEmpty() ? sheets.subList(0, 1) : sheets;
+        for (int i = 0; i < exported.size(); i++) {
+            Sheet sheet = exported.get(i);
+            if (!csv) {
+                if (i > 0) {
+                    writer.write('\n');
+                }
+                writer.write(sheet.name() == null ? "" : sheet.name());
+                writer.write('\n');
+            }
+            writeSheet(zip, sheet.part(), sharedStrings, csv, writer);
+            writer.flush();
+        }
+    }
+
+    private static void writeSheet(ZipFile zip, String part, List<String> sharedStrings, boolean csv, Writer writer)
+            throws IOException, XMLStreamException {
+        try (Part sheet = Part.open(zip, part)) {
+            XMLStreamReader reader = sheet.reader();
+            StringBuilder value = new StringBuilder();
+            int row = 0;
+            int column = 0;
+            int cellColumn = 0;
+            String cellType = null;
+            boolean inValue = false;
+            int phoneticDepth = 0;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "row" -> {
+                                int index = parseIndex(attribute(reader, "r"), row + 1);
+                                // Empty rows are not stored, CSV keeps them so the rows stay where they were
+                                for (int missing = row + 1; csv && missing < index; missing++) {
+                                    writer.write('\n');
+                                }
+                                row = index;
+                                column = 0;
+                            }
+                            case "c" -> {
+                                cellColumn = columnIndex(attribute(reader, "r"), column + 1);
+                                cellType = attribute(reader, "t");
+                                value.setLength(0);
+                            }
+                            case "v", "t" -> inValue = phoneticDepth == 0;
+                            case "rPh" -> phoneticDepth++;
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "v", "t" -> inValue = false;
+                            case "rPh" -> phoneticDepth--;
+                            case "c" -> {
+                                String text = cellText(cellType, value, sharedStrings);
+                                if (!text.isEmpty()) {
+                                    // Empty cells are not stored either, the separators keep the columns aligned
+                                    int separators = Math.max(cellColumn - Math.max(column, 1), column > 0 ? 1 : 0);
+                                    for (int i = 0; i < separators; i++) {
+                                        writer.write(csv ? ',' : '\t');
+                                    }
+                                    writeCell(text, csv, writer);
+                                    column = cellColumn;
+                                }
+                            }
+                            case "row" -> writer.write('\n');
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (inValue) {
+                            value.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    private static String cellText(String type, StringBuilder value, List<String> sharedStrings) {
+        // Numbers and dates are written as stored, number formats are not applied
+        if ("s".equals(type)) {
+            int index = parseIndex(value.toString().trim(), -1);
+            return index >= 0 && index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+        if ("b".equals(type)) {
+            return "1".contentEquals(value) ? "TRUE" : "FALSE";
+        }
+        return value.toString();
+    }
+
+    private static void writeCell(String text, boolean csv, Writer writer) throws IOException {
+        if (!csv) {
+            writer.write(text.replace('\t', ' ').replace('\r', ' ').replace('\n', ' '));
+            return;
+        }
+
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private List<String> readSharedStrings(ZipFile zip, String part) throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        long chars = 0;
+
+        try (Part sharedStrings = Part.open(zip, part)) {
+            XMLStreamReader reader = sharedStrings.reader();
+            StringBuilder item = new StringBuilder();
+            boolean inText = false;
+            int phoneticDepth = 0;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "si" -> item.setLength(0);
+                            case "t" -> inText = phoneticDepth == 0;
+                            case "rPh" -> phoneticDepth++;
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "si" -> {
+                                chars += item.length();
+                                if (chars > maxSharedStringChars) {
+                                    throw new TextExtractionException("The shared strings of the workbook are too large");
+                                }
+                                strings.add(item.toString());
+                            }
+                            case "t" -> inText = false;
+                            case "rPh" -> phoneticDepth--;
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (inText) {
+                            item.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        return strings;
+    }
+
+    private static void writePresentation(ZipFile zip, String part, Writer writer)
+            throws IOException, XMLStreamException {
+        Relationships relationships = relationships(zip, part);
+
+        List<String> slides = new ArrayList<>();
+        try (Part presentation = Part.open(zip, part)) {
+            XMLStreamReader reader = presentation.reader();
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("sldId")) {
+                    String target = relationships.target(relationshipId(reader));
+                    if (target != null) {
+                        slides.add(target);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < slides.size(); i++) {
+            if (i > 0) {
+                writer.write('\n');
+            }
+            writeSlide(zip, slides.get(i), writer);
+            writer.flush();
+        }
+    }
+
+    private static void writeSlide(ZipFile zip, String part, Writer writer) throws IOException, XMLStreamException {
+        try (Part slide = Part.open(zip, part)) {
+            XMLStreamReader reader = slide.reader();
+            boolean inText = false;
+            boolean paragraphHasText = false;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "p" -> paragraphHasText = false;
+                            case "t" -> inText = true;
+                            case "br" -> writer.write('\n');
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "t" -> inText = false;
+                            case "p" -> writeIf(paragraphHasText, '\n', writer);
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (inText) {
+                            writer.write(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                            paragraphHasText = true;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    private static Relationships relationships(ZipFile zip, String part) throws IOException, XMLStreamException {
+        int slash = part.lastIndexOf('/');
+        String directory = part.substring(0, slash + 1);
+        String relationshipsPart = directory + "_rels/" + part.substring(slash + 1) + ".rels";
+
+        Map<String, String> targets = new HashMap<>();
+        Map<String, String> types = new HashMap<>();
+        if (zip.getEntry(relationshipsPart) == null) {
+            return new Relationships(targets, types);
+        }
+
+        try (Part relationships = Part.open(zip, relationshipsPart)) {
+            XMLStreamReader reader = relationships.reader();
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("Relationship")
+                        && !"External".equals(attribute(reader, "TargetMode"))) {
+                    String id = attribute(reader, "Id");
+                    String target = resolve(directory, attribute(reader, "Target"));
+                    String type = attribute(reader, "Type");
+                    if (id != null && target != null) {
+                        targets.put(id, target);
+                        if (type != null) {
+                            types.putIfAbsent(type.substring(type.lastIndexOf('/')), target);
+                        }
+                    }
+                }
+            }
+        }
+        return new Relationships(targets, types);
+    }
+
+    private static String resolve(String directory, String target) {
+        if (target == null) {
+            return null;
+        }
+
+        String path = target.startsWith("/") ? target.substring(1) : directory + target;
+        Deque<String> segments = new ArrayDeque<>();
+        for (String segment : path.split("/")) {
+            if (segment.equals("..")) {
+                segments.pollLast();
+            } else if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.addLast(segment);
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    private static String relationshipId(XMLStreamReader reader) {
+        // The part id and the relationship id share a local name, only the relationship id is namespaced
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if (reader.getAttributeLocalName(i).equals("id") && namespace != null && !namespace.isEmpty()) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static String attribute(XMLStreamReader reader, String localName) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (reader.getAttributeLocalName(i).equals(localName)) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static int columnIndex(String reference, int fallback) {
+        if (reference == null) {
+            return fallback;
+        }
+
+        int column = 0;
+        for (int i = 0; i < reference.length() && Character.isLetter(reference.charAt(i)); i++) {
+            column = column * 26 + (Character.toUpperCase(reference.charAt(i)) - 'A' + 1);
+        }
+        return column > 0 ? column : fallback;
+    }
+
+    private static int parseIndex(String value, int fallback) {
+        if (value == null) {
+            return fallback;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static void writeIf(boolean condition, char c, Writer writer) throws IOException {
+        if (condition) {
+            writer.write(c);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    private record Sheet(String name, String part) {
+    }
+
+    private record Relationships(Map<String, String> targets, Map<String, String> types) {
+
+        String target(String id) {
+            return id == null ? null : targets.get(id);
+        }
+
+        String targetOfType(String type) {
+            return types.get(type);
+        }
+    }
+
+    private static final class AlternateContentFilter implements StreamFilter {
+
+        // Alternate content holds the same text once per branch, only the first branch of each block is read
+        private final Deque<Boolean> branchTaken = new ArrayDeque<>();
+        private int skippedDepth;
+
+        @Override
+        public boolean accept(XMLStreamReader reader) {
+            if (skippedDepth > 0) {
+                if (reader.isStartElement()) {
+                    skippedDepth++;
+                } else if (reader.isEndElement()) {
+                    skippedDepth--;
+                }
+                return false;
+            }
+
+            if (!(reader.isStartElement() || reader.isEndElement())
+                    || !MARKUP_COMPATIBILITY.equals(reader.getNamespaceURI())) {
+                return true;
+            }
+
+            switch (reader.getLocalName()) {
+                case "AlternateContent" -> {
+                    if (reader.isStartElement()) {
+                        branchTaken.push(false);
+                    } else {
+                        branchTaken.poll();
+                    }
+                }
+                case "Choice", "Fallback" -> {
+                    if (reader.isStartElement() && !branchTaken.isEmpty()) {
+                        if (branchTaken.peek()) {
+                            skippedDepth = 1;
+                        } else {
+                            branchTaken.pop();
+                            branchTaken.push(true);
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Part(InputStream inputStream, XMLStreamReader reader) implements AutoCloseable {
+
+        static Part open(ZipFile zip, String name) throws IOException, XMLStreamException {
+            ZipEntry entry = zip.getEntry(name);
+            if (entry == null) {
+                throw new IOException("Missing part " + name);
+            }
+
+            InputStream inputStream = zip.getInputStream(entry);
+            try {
+                XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+                return new Part(inputStream, XML_INPUT_FACTORY.createFilteredReader(reader, new AlternateContentFilter()));
+            } catch (XMLStreamException | RuntimeException e) {
+                inputStream.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            } finally {
+                inputStream.close();
+            }
+        }
+    }
+}
@@ -1,41 +1,183 @@
 package com.danieloliveira.file_converter.document.service.strategy;
 
+import com.danieloliveira.file_converter.concurrency.ConversionThreads;
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
 import com.danieloliveira.file_converter.document.exceptions.TextExtractionException;
 import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.service.PdfDocuments;
+import com.danieloliveira.file_converter.storage.LocalUpload;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 @Component
 @Order(1)
 public class PdfToTextStrategy implements DocumentConversionStrategy {
 
+    private static final Map<DocFormat, Set<DocFormat>> SUPPORTED_CONVERSIONS = Map.of(DocFormat.PDF, Set.of(DocFormat.TXT));
+
+    private final int parallelThresholdPages;
+    private final int pagesPerRange;
+    private final int workers;
+    private final long maxMainMemoryBytes;
+    private final ExecutorService executor;
+
+    public PdfToTextStrategy(
+            @Value("${conversion.pdf-text.parallel-threshold-pages:64}") int parallelThresholdPages,
+            @Value("${conversion.pdf-text.pages-per-range:16}") int pagesPerRange,
+            @Value("${conversion.pdf-text.workers:0}") int workers,
+            @Value("${conversion.pdf-text.max-main-memory:32MB}") DataSize maxMainMemory) {
+
+        this.parallelThresholdPages = parallelThresholdPages;
+        this.pagesPerRange = Math.max(1, pagesPerRange);
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.maxMainMemoryBytes = maxMainMemory.toBytes();
+
+        this.executor = Executors.newFixedThreadPool(this.workers, ConversionThreads.cpuThreads("pdf-text-"));
+    }
+
+    @Override
+    public Map<DocFormat, Set<DocFormat>> getSupportedConversions() {
+        return SUPPORTED_CONVERSIONS;
+    }
+
+    @Override
+    public void convert(MultipartFile file, DocFormat sourceFormat, DocFormat targetFormat, OutputStream outputStream)
+            throws IOException {
+        try (LocalUpload pdf = LocalUpload.of(file, "pdf-text-", ".pdf")) {
+            extractText(pdf.getPath(), outputStream);
+        }
+    }
+
     @Override
-    public boolean canConvert(String sourceMimeType, DocFormat targetFormat) {
-        return (sourceMimeType.equals(DocFormat.PDF.getMimeType()) ||
-                sourceMimeType.equals(DocFormat.PDFA.getMimeType()))
-                && targetFormat == DocFormat.TXT;
+    public ConversionClass getConversionClass() {
+        return ConversionClass.PDF_TEXT;
     }
 
     @Override
-    public byte[] convert(MultipartFile file, DocFormat targetFormat) {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
+    public boolean isStreaming() {
+        return true;
+    }
 
-            PDFTextStripper stripper = new PDFTextStripper();
-            stripper.setSortByPosition(true);
-            stripper.setStartPage(1);
-            stripper.setEndPage(document.getNumberOfPages());
+    public void extractText(Path pdf, OutputStream outputStream) {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        int pages;
 
-            String text = stripper.getText(document);
-            return text.getBytes(StandardCharsets.UTF_8);
+        try (PDDocument document = load(pdf)) {
+            pages = document.getNumberOfPages();
 
+            if (workers == 1 || pages < parallelThresholdPages) {
+                PDFTextStripper stripper = createStripper();
+                for (int start = 1; start <= pages; start += pagesPerRange) {
+                    extractRange(stripper, document, start, Math.min(start + pagesPerRange - 1, pages), writer);
+                    writer.flush();
+                }
+                return;
+            }
         } catch (IOException e) {
             throw new TextExtractionException("Error extracting text from PDF: " + e.getMessage());
         }
+
+        extractInParallel(pdf, pages, writer);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void extractInParallel(Path pdf, int pages, Writer writer) {
+        // Ranges are submitted from here as their text is written, so a worker never waits for a slow reader and
+        // the shared pool stays free for other requests
+        int ranges = (pages + pagesPerRange - 1) / pagesPerRange;
+        int window = workers * 2;
+        List<CompletableFuture<String>> results = Stream.generate(CompletableFuture<String>::new).limit(ranges).toList();
+        List<Future<?>> tasks = new ArrayList<>();
+        PdfDocuments documents = new PdfDocuments(pdf, maxMainMemoryBytes);
+
+        try {
+            int next = 0;
+            for (; next < Math.min(window, ranges); next++) {
+                tasks.add(submitRange(documents, pages, next, results.get(next)));
+            }
+
+            for (CompletableFuture<String> result : results) {
+                writer.write(result.get());
+                writer.flush();
+                if (next < ranges) {
+                    tasks.add(submitRange(documents, pages, next, results.get(next)));
+                    next++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TextExtractionException("Text extraction was interrupted");
+        } catch (ExecutionException | IOException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new TextExtractionException("Error extracting text from PDF: " + cause.getMessage());
+        } finally {
+            tasks.forEach(task -> task.cancel(true));
+            documents.close();
+        }
+    }
+
+    private Future<?> submitRange(PdfDocuments documents, int pages, int range, CompletableFuture<String> result) {
+        return executor.submit(() -> {
+            int start = range * pagesPerRange + 1;
+            int end = Math.min(start + pagesPerRange - 1, pages);
+
+            PDDocument document = null;
+            try {
+                document = documents.borrow();
+                StringWriter text = new StringWriter();
+                extractRange(createStripper(), document, start, end, text);
+                result.complete(text.toString());
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                documents.giveBack(document);
+            }
+        });
+    }
+
+    private static void extractRange(PDFTextStripper stripper, PDDocument document, int start, int end,
+                                     Writer writer) throws IOException {
+        stripper.setStartPage(start);
+        stripper.setEndPage(end);
+        stripper.writeText(document, writer);
+    }
+
+    private PDDocument load(Path pdf) throws IOException {
+        return PDDocument.load(pdf.toFile(), MemoryUsageSetting.setupMixed(maxMainMemoryBytes));
+    }
+
+    private static PDFTextStripper createStripper() throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setSortByPosition(true);
+        return stripper;
     }
 }
@@ -1,25 +1,44 @@
 package com.danieloliveira.file_converter.exceptions.controller;
 
+import com.danieloliveira.file_converter.batch.exceptions.InvalidBatchException;
+import com.danieloliveira.file_converter.concurrency.exceptions.AdmissionRejectedException;
+import com.danieloliveira.file_converter.concurrency.exceptions.ConversionCapacityExceededException;
+import com.danieloliveira.file_converter.concurrency.exceptions.TooManyConversionsException;
 import com.danieloliveira.file_converter.document.exceptions.ConversionException;
 import com.danieloliveira.file_converter.document.exceptions.DocumentCorruptedOrEmptyException;
 import com.danieloliveira.file_converter.document.exceptions.InvalidDocumentFormatException;
+import com.danieloliveira.file_converter.document.exceptions.InvalidDocumentOptionsException;
+import com.danieloliveira.file_converter.document.exceptions.InvalidRenderOptionsException;
 import com.danieloliveira.file_converter.document.exceptions.TextExtractionException;
 import com.danieloliveira.file_converter.exceptions.ErrorMessage;
 import com.danieloliveira.file_converter.image.exceptions.ImageCorruptedOrEmptyException;
 import com.danieloliveira.file_converter.image.exceptions.InvalidImageFormatException;
+import com.danieloliveira.file_converter.image.exceptions.ImageTooLargeException;
+import com.danieloliveira.file_converter.image.exceptions.InvalidImageOptionsException;
+import com.danieloliveira.file_converter.job.exceptions.JobNotFoundException;
+import com.danieloliveira.file_converter.job.exceptions.JobQueueFullException;
+import com.danieloliveira.file_converter.job.exceptions.JobResultNotAvailableException;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final ConversionMetrics metrics;
+
     // IMAGE ERRORS
     @ExceptionHandler(ImageCorruptedOrEmptyException.class)
     public ResponseEntity<ErrorMessage> handleImageCorruptedOrEmptyException(ImageCorruptedOrEmptyException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.BAD_REQUEST.value());
 
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
@@ -29,6 +48,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidImageFormatException.class)
     public ResponseEntity<ErrorMessage> handleInvalidImageFormatException(InvalidImageFormatException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
 
         return ResponseEntity
                 .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
@@ -36,9 +56,30 @@ public class GlobalExceptionHandler {
                 .body(new ErrorMessage(request, HttpStatus.UNSUPPORTED_MEDIA_TYPE, ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidImageOptionsException.class)
+    public ResponseEntity<ErrorMessage> handleInvalidImageOptionsException(InvalidImageOptionsException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.BAD_REQUEST.value());
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
+
+    @ExceptionHandler(ImageTooLargeException.class)
+    public ResponseEntity<ErrorMessage> handleImageTooLargeException(ImageTooLargeException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.CONTENT_TOO_LARGE.value());
+
+        return ResponseEntity
+                .status(HttpStatus.CONTENT_TOO_LARGE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.CONTENT_TOO_LARGE, ex.getMessage()));
+    }
+
     // DOCUMENT ERRORS
     @ExceptionHandler(ConversionException.class)
     public ResponseEntity<ErrorMessage> handleConversionException(ConversionException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.INTERNAL_SERVER_ERROR.value());
 
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -48,6 +89,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DocumentCorruptedOrEmptyException.class)
     public ResponseEntity<ErrorMessage> handleDocumentCorruptedOrEmptyException(DocumentCorruptedOrEmptyException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.BAD_REQUEST.value());
 
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
@@ -57,6 +99,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidDocumentFormatException.class)
     public ResponseEntity<ErrorMessage> handleInvalidDocumentFormatException(InvalidDocumentFormatException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
 
         return ResponseEntity
                 .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
@@ -66,6 +109,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(TextExtractionException.class)
     public ResponseEntity<ErrorMessage> handleTextExtractionException(TextExtractionException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.INTERNAL_SERVER_ERROR.value());
 
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -73,13 +117,114 @@ public class GlobalExceptionHandler {
                 .body(new ErrorMessage(request, HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidRenderOptionsException.class)
+    public ResponseEntity<ErrorMessage> handleInvalidRenderOptionsException(InvalidRenderOptionsException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.BAD_REQUEST.value());
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidDocumentOptionsException.class)
+    public ResponseEntity<ErrorMessage> handleInvalidDocumentOptionsException(InvalidDocumentOptionsException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.BAD_REQUEST.value());
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
+
+    // JOB ERRORS
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<ErrorMessage> handleJobNotFoundException(JobNotFoundException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.NOT_FOUND.value());
+
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.NOT_FOUND, ex.getMessage()));
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<ErrorMessage> handleJobQueueFullException(JobQueueFullException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.TOO_MANY_REQUESTS.value());
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    @ExceptionHandler(JobResultNotAvailableException.class)
+    public ResponseEntity<ErrorMessage> handleJobResultNotAvailableException(JobResultNotAvailableException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.CONFLICT.value());
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.CONFLICT, ex.getMessage()));
+    }
+
+    // BATCH ERRORS
+    @ExceptionHandler(InvalidBatchException.class)
+    public ResponseEntity<ErrorMessage> handleInvalidBatchException(InvalidBatchException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.BAD_REQUEST.value());
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
+
+    // ADMISSION ERRORS
+    @ExceptionHandler(TooManyConversionsException.class)
+    public ResponseEntity<ErrorMessage> handleTooManyConversionsException(TooManyConversionsException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.TOO_MANY_REQUESTS.value());
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    @ExceptionHandler(ConversionCapacityExceededException.class)
+    public ResponseEntity<ErrorMessage> handleConversionCapacityExceededException(ConversionCapacityExceededException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    // UPLOAD ERRORS
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorMessage> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.CONTENT_TOO_LARGE.value());
+
+        return ResponseEntity
+                .status(HttpStatus.CONTENT_TOO_LARGE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorMessage(request, HttpStatus.CONTENT_TOO_LARGE, "The upload exceeds the maximum allowed size"));
+    }
+
     // other erros
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorMessage> handleGenericException(Exception ex, HttpServletRequest request) {
+        metrics.recordFailure(ex, HttpStatus.INTERNAL_SERVER_ERROR.value());
 
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorMessage(request, HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage()));
     }
+
+    private static String retryAfterSeconds(AdmissionRejectedException ex) {
+        return String.valueOf((ex.getRetryAfter().toMillis() + 999) / 1000);
+    }
 }
@@ -1,9 +1,13 @@
 package com.danieloliveira.file_converter.image.controller;
 
+import com.danieloliveira.file_converter.cache.model.ConversionResult;
 import com.danieloliveira.file_converter.exceptions.ErrorMessage;
 import com.danieloliveira.file_converter.image.exceptions.ImageCorruptedOrEmptyException;
+import com.danieloliveira.file_converter.image.model.ImageConversionOptions;
 import com.danieloliveira.file_converter.image.model.ImageFormat;
 import com.danieloliveira.file_converter.image.service.ImageConverterService;
+import com.danieloliveira.file_converter.storage.ConversionResponses;
+import com.danieloliveira.file_converter.storage.ZipResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,13 +16,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
 
 @RestController
 @RequestMapping("/api/v1/conversions/images")
@@ -28,12 +40,18 @@ import java.io.IOException;
 public class ImageConverterController {
 
     private final ImageConverterService service;
+    private final ConversionResponses responses;
 
-    @Operation(summary = "Convert to PNG", description = "Converts an input image file to PNG format. Supports transparency.")
+    @Operation(summary = "Convert to PNG", description = "Converts an input image file to PNG format. Supports transparency. Can optionally resize the image.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Image converted successfully",
                     content = @Content(mediaType = "image/png")),
-            @ApiResponse(responseCode = "400", description = "Bad Request: Image is empty or corrupted",
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the result",
+                    content = @Content(mediaType = "image/png")),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The result still matches the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Bad Request: Image is empty or corrupted, or the options are invalid",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "413", description = "Content Too Large: The image has more pixels than the server limit and no resize brings it under it",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
             @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Input file is not a valid image",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
@@ -41,27 +59,32 @@ public class ImageConverterController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
     })
     @PostMapping(value = "/to-png", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<byte[]> toPNG(
+    public ResponseEntity<Resource> toPNG(
             @Parameter(description = "The image file to convert", required = true)
-            @RequestParam("file") MultipartFile image) throws IOException {
+            @RequestParam("file") MultipartFile image,
+            @ParameterObject ImageConversionOptions options,
+            @Parameter(description = "ETag of an earlier result for the same image and options, answered with 304 Not Modified when it still matches")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, defaultValue = "") List<String> ifNoneMatch) throws IOException {
         if (image.isEmpty()) {
             throw new ImageCorruptedOrEmptyException("Image file is empty or corrupted");
         }
 
-        byte[] convertedImage = service.imageConverter(image, ImageFormat.PNG);
+        ConversionResult convertedImage = service.imageConverter(image, ImageFormat.PNG, options, ifNoneMatch);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_PNG)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"image_converted.png\"")
-                .body(convertedImage);
+        return responses.of(convertedImage, MediaType.IMAGE_PNG, "image_converted.png");
     }
 
 
-    @Operation(summary = "Convert to JPEG", description = "Converts an input image file to JPEG format. Automatically replaces transparency with a white background.")
+    @Operation(summary = "Convert to JPEG", description = "Converts an input image file to JPEG format. Automatically replaces transparency with a white background. Can optionally resize the image and set the compression quality.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Image converted successfully",
                     content = @Content(mediaType = "image/jpeg")),
-            @ApiResponse(responseCode = "400", description = "Bad Request: Image is empty or corrupted",
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the result",
+                    content = @Content(mediaType = "image/jpeg")),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The result still matches the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Bad Request: Image is empty or corrupted, or the options are invalid",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "413", description = "Content Too Large: The image has more pixels than the server limit and no resize brings it under it",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
             @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Input file is not a valid image",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
@@ -69,27 +92,32 @@ public class ImageConverterController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
     })
     @PostMapping(value = "/to-jpeg", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<byte[]> toJPG(
+    public ResponseEntity<Resource> toJPG(
             @Parameter(description = "The image file to convert", required = true)
-            @RequestParam("file") MultipartFile image) throws IOException {
+            @RequestParam("file") MultipartFile image,
+            @ParameterObject ImageConversionOptions options,
+            @Parameter(description = "ETag of an earlier result for the same image and options, answered with 304 Not Modified when it still matches")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, defaultValue = "") List<String> ifNoneMatch) throws IOException {
         if (image.isEmpty()) {
             throw new ImageCorruptedOrEmptyException("Image file is empty or corrupted");
         }
 
-        byte[] convertedImage = service.imageConverter(image, ImageFormat.JPEG);
+        ConversionResult convertedImage = service.imageConverter(image, ImageFormat.JPEG, options, ifNoneMatch);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_JPEG)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"image_converted.jpeg\"")
-                .body(convertedImage);
+        return responses.of(convertedImage, MediaType.IMAGE_JPEG, "image_converted.jpeg");
     }
 
 
-    @Operation(summary = "Convert to WebP", description = "Converts an input image file to WebP format for optimized web usage.")
+    @Operation(summary = "Convert to WebP", description = "Converts an input image file to WebP format for optimized web usage. Can optionally resize the image and choose lossy or lossless compression.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Image converted successfully",
                     content = @Content(mediaType = "image/webp")),
-            @ApiResponse(responseCode = "400", description = "Bad Request: Image is empty or corrupted",
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the result",
+                    content = @Content(mediaType = "image/webp")),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The result still matches the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Bad Request: Image is empty or corrupted, or the options are invalid",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "413", description = "Content Too Large: The image has more pixels than the server limit and no resize brings it under it",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
             @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Input file is not a valid image",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
@@ -97,18 +125,56 @@ public class ImageConverterController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
     })
     @PostMapping(value = "/to-webp", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<byte[]> toWEBP(
+    public ResponseEntity<Resource> toWEBP(
             @Parameter(description = "The image file to convert", required = true)
-            @RequestParam("file") MultipartFile image) throws IOException {
+            @RequestParam("file") MultipartFile image,
+            @ParameterObject ImageConversionOptions options,
+            @Parameter(description = "ETag of an earlier result for the same image and options, answered with 304 Not Modified when it still matches")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, defaultValue = "") List<String> ifNoneMatch) throws IOException {
         if (image.isEmpty()) {
             throw new ImageCorruptedOrEmptyException("Image file is empty or corrupted");
         }
 
-        byte[] convertedImage = service.imageConverter(image, ImageFormat.WEBP);
+        ConversionResult convertedImage = service.imageConverter(image, ImageFormat.WEBP, options, ifNoneMatch);
+
+        return responses.of(convertedImage, MediaType.parseMediaType(ImageFormat.WEBP.getMimeType()), "image_converted.webp");
+    }
+
+    @Operation(summary = "Convert to several formats", description = "Decodes the input image once and encodes it to every requested format in parallel. The results are returned as a ZIP archive, one entry per format.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "ZIP archive with one image per target format",
+                    content = @Content(mediaType = "application/zip")),
+            @ApiResponse(responseCode = "400", description = "Bad Request: Image is empty or corrupted, or the options are invalid",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "413", description = "Content Too Large: The image has more pixels than the server limit and no resize brings it under it",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported Media Type: Input file is not a valid image",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error: Conversion failed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/multi", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> toMultipleFormats(
+            @Parameter(description = "The image file to convert", required = true)
+            @RequestParam("file") MultipartFile image,
+            @Parameter(description = "The target image formats", required = true)
+            @RequestParam("targetFormats") Set<ImageFormat> targetFormats,
+            @ParameterObject ImageConversionOptions options) throws IOException {
+        if (image.isEmpty()) {
+            throw new ImageCorruptedOrEmptyException("Image file is empty or corrupted");
+        }
+
+        Map<ImageFormat, Resource> convertedImages = service.imageConverter(image, targetFormats, options);
+
+        Map<String, Resource> entries = new LinkedHashMap<>();
+        convertedImages.forEach((format, resource) -> {
+            String extension = format.name().toLowerCase();
+            entries.put(ZipResponseBody.entryName(image.getOriginalFilename(), extension, extension), resource);
+        });
 
         return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(ImageFormat.WEBP.getMimeType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"image_converted.webp\"")
-                .body(convertedImage);
+                .contentType(MediaType.valueOf("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"images_converted.zip\"")
+                .body(ZipResponseBody.of(entries, Deflater.NO_COMPRESSION));
     }
 }
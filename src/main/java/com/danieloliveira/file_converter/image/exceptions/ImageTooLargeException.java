@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.image.exceptions;
+
+public class ImageTooLargeException extends RuntimeException {
+    public ImageTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.image.exceptions;
+
+public class InvalidImageOptionsException extends RuntimeException {
+    public InvalidImageOptionsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,69 @@
+package com.danieloliveira.file_converter.image.model;
+
+import io.swagger.v3.oas.annotations.Parameter;
+
+import java.awt.*;
+
+public record ImageConversionOptions(
+        @Parameter(description = "Target width in pixels, images are never enlarged")
+        Integer width,
+        @Parameter(description = "Target height in pixels, images are never enlarged")
+        Integer height,
+        @Parameter(description = "How the image fits the target box when both width and height are set (defaults to CONTAIN)")
+        ResizeFit fit,
+        @Parameter(description = "Compression quality between 0.0 and 1.0, for PNG it controls the compression effort")
+        Float quality,
+        @Parameter(description = "Use lossless compression (WEBP only, PNG is always lossless)")
+        Boolean lossless) {
+
+    public static final ImageConversionOptions NONE = new ImageConversionOptions(null, null, null, null, null);
+
+    public boolean resizes() {
+        return width != null || height != null;
+    }
+
+    public boolean isLossless() {
+        return Boolean.TRUE.equals(lossless);
+    }
+
+    public ResizeFit effectiveFit() {
+        return fit == null ? ResizeFit.CONTAIN : fit;
+    }
+
+    public Dimension scaledSize(int sourceWidth, int sourceHeight) {
+        if (!resizes()) {
+            return new Dimension(sourceWidth, sourceHeight);
+        }
+
+        double scaleX = width == null ? Double.NaN : (double) width / sourceWidth;
+        double scaleY = height == null ? Double.NaN : (double) height / sourceHeight;
+
+        if (width != null && height != null && effectiveFit() == ResizeFit.FILL) {
+            return scale(sourceWidth, sourceHeight, Math.min(1, scaleX), Math.min(1, scaleY));
+        }
+
+        double scale;
+        if (width == null || height == null) {
+            scale = width == null ? scaleY : scaleX;
+        } else {
+            scale = effectiveFit() == ResizeFit.COVER ? Math.max(scaleX, scaleY) : Math.min(scaleX, scaleY);
+        }
+        scale = Math.min(1, scale);
+
+        return scale(sourceWidth, sourceHeight, scale, scale);
+    }
+
+    public String cacheKey() {
+        if (this.equals(NONE)) {
+            return "";
+        }
+        return "w=" + width + ";h=" + height + ";fit=" + (resizes() ? effectiveFit() : null)
+                + ";q=" + quality + ";lossless=" + isLossless();
+    }
+
+    private static Dimension scale(int sourceWidth, int sourceHeight, double scaleX, double scaleY) {
+        return new Dimension(
+                Math.max(1, (int) Math.round(sourceWidth * scaleX)),
+                Math.max(1, (int) Math.round(sourceHeight * scaleY)));
+    }
+}
@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.image.model;
+
+public enum ResizeFit {
+    CONTAIN,
+    COVER,
+    FILL
+}
@@ -0,0 +1,266 @@
+package com.danieloliveira.file_converter.image.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+@Component
+public class AlphaFlattener {
+
+    private static final int GENERIC_BLOCK_PIXELS = 64 * 1024;
+
+    private static final ColorModel INT_RGB = new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF);
+    private static final ColorModel BYTE_BGR = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB),
+            false, false, Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+
+    private final int backgroundRed;
+    private final int backgroundGreen;
+    private final int backgroundBlue;
+
+    public AlphaFlattener(@Value("${conversion.image.background:#FFFFFF}") String background) {
+        Color color = Color.decode(background);
+        this.backgroundRed = color.getRed();
+        this.backgroundGreen = color.getGreen();
+        this.backgroundBlue = color.getBlue();
+    }
+
+    public BufferedImage flatten(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+
+        BufferedImage flattened = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+        flattenInto(image, flattened, 0);
+        return flattened;
+    }
+
+    public BufferedImage flattenInPlace(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+
+        // Only for images nobody else reads, the pixels are overwritten and the buffer is handed to the opaque copy
+        WritableRaster raster = image.getRaster();
+        if (isCompact(raster) && isPackedArgb(image)) {
+            return flattenPackedInPlace(image);
+        }
+        if (isCompact(raster) && isInterleavedRgba(image)
+                && ((ComponentSampleModel) raster.getSampleModel()).getPixelStride() == 4) {
+            return flattenInterleavedInPlace(image);
+        }
+        return flatten(image);
+    }
+
+    void flattenInto(BufferedImage source, BufferedImage target, int targetY) {
+        // The target is TYPE_3BYTE_BGR with the width of the source
+        byte[] bgr = ((DataBufferByte) target.getRaster().getDataBuffer()).getData();
+        int offset = targetY * source.getWidth() * 3;
+
+        if (isPackedArgb(source)) {
+            flattenPacked(source, bgr, offset);
+        } else if (isInterleavedRgba(source)) {
+            flattenInterleaved(source, bgr, offset);
+        } else if (source.getColorModel() instanceof IndexColorModel palette) {
+            flattenIndexed(source, palette, bgr, offset);
+        } else {
+            flattenGeneric(source, bgr, offset);
+        }
+    }
+
+    private BufferedImage flattenPackedInPlace(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        DataBufferInt buffer = (DataBufferInt) image.getRaster().getDataBuffer();
+        int[] pixels = buffer.getData();
+        boolean premultiplied = image.isAlphaPremultiplied();
+
+        for (int i = 0, length = width * height; i < length; i++) {
+            int argb = pixels[i];
+            int alpha = argb >>> 24;
+            if (alpha != 0xFF) {
+                int red = blend((argb >> 16) & 0xFF, backgroundRed, alpha, premultiplied);
+                int green = blend((argb >> 8) & 0xFF, backgroundGreen, alpha, premultiplied);
+                int blue = blend(argb & 0xFF, backgroundBlue, alpha, premultiplied);
+                pixels[i] = (red << 16) | (green << 8) | blue;
+            }
+        }
+
+        WritableRaster rgb = Raster.createPackedRaster(buffer, width, height, width,
+                new int[]{0xFF0000, 0xFF00, 0xFF}, null);
+        return new BufferedImage(INT_RGB, rgb, false, null);
+    }
+
+    private BufferedImage flattenInterleavedInPlace(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        DataBufferByte buffer = (DataBufferByte) image.getRaster().getDataBuffer();
+        byte[] pixels = buffer.getData();
+        int[] bands = ((ComponentSampleModel) image.getRaster().getSampleModel()).getBandOffsets();
+        boolean premultiplied = image.isAlphaPremultiplied();
+
+        // Every pixel shrinks from four bytes to three, so writing front to back never overtakes the reads
+        for (int source = 0, target = 0, length = width * height * 4; source < length; source += 4, target += 3) {
+            int red = pixels[source + bands[0]] & 0xFF;
+            int green = pixels[source + bands[1]] & 0xFF;
+            int blue = pixels[source + bands[2]] & 0xFF;
+            int alpha = pixels[source + bands[3]] & 0xFF;
+            writeBgr(pixels, target, red, green, blue, alpha, premultiplied);
+        }
+
+        WritableRaster bgr = Raster.createInterleavedRaster(buffer, width, height, width * 3, 3, new int[]{2, 1, 0}, null);
+        return new BufferedImage(BYTE_BGR, bgr, false, null);
+    }
+
+    private void flattenPacked(BufferedImage source, byte[] bgr, int offset) {
+        Raster raster = source.getRaster();
+        DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+        int[] pixels = buffer.getData();
+        int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+        int origin = buffer.getOffset() - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+        boolean premultiplied = source.isAlphaPremultiplied();
+        int width = source.getWidth();
+
+        int target = offset;
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int i = origin + y * stride, end = i + width; i < end; i++, target += 3) {
+                int argb = pixels[i];
+                writeBgr(bgr, target, (argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, argb >>> 24, premultiplied);
+            }
+        }
+    }
+
+    private void flattenInterleaved(BufferedImage source, byte[] bgr, int offset) {
+        Raster raster = source.getRaster();
+        DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+        byte[] pixels = buffer.getData();
+        ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+        int pixelStride = sampleModel.getPixelStride();
+        int stride = sampleModel.getScanlineStride();
+        int[] bands = sampleModel.getBandOffsets();
+        int origin = buffer.getOffset() - raster.getSampleModelTranslateY() * stride
+                - raster.getSampleModelTranslateX() * pixelStride;
+        boolean premultiplied = source.isAlphaPremultiplied();
+        int width = source.getWidth();
+
+        int target = offset;
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int i = origin + y * stride, end = i + width * pixelStride; i < end; i += pixelStride, target += 3) {
+                writeBgr(bgr, target, pixels[i + bands[0]] & 0xFF, pixels[i + bands[1]] & 0xFF,
+                        pixels[i + bands[2]] & 0xFF, pixels[i + bands[3]] & 0xFF, premultiplied);
+            }
+        }
+    }
+
+    private void flattenIndexed(BufferedImage source, IndexColorModel palette, byte[] bgr, int offset) {
+        // Blend each palette entry once, every pixel is then a table lookup
+        int[] colors = new int[palette.getMapSize()];
+        palette.getRGBs(colors);
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = flattenArgb(colors[i]);
+        }
+
+        Raster raster = source.getRaster();
+        int width = source.getWidth();
+        int[] row = new int[width];
+
+        int target = offset;
+        for (int y = 0; y < source.getHeight(); y++) {
+            raster.getSamples(0, y, width, 1, 0, row);
+            for (int x = 0; x < width; x++, target += 3) {
+                int rgb = colors[row[x]];
+                bgr[target] = (byte) rgb;
+                bgr[target + 1] = (byte) (rgb >> 8);
+                bgr[target + 2] = (byte) (rgb >> 16);
+            }
+        }
+    }
+
+    private void flattenGeneric(BufferedImage source, byte[] bgr, int offset) {
+        // Layouts without a dedicated loop are converted to sRGB by the color model, a block of rows at a time
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int rowsPerBlock = Math.max(1, Math.min(height, GENERIC_BLOCK_PIXELS / width));
+        int[] block = new int[rowsPerBlock * width];
+
+        int target = offset;
+        for (int y = 0; y < height; y += rowsPerBlock) {
+            int rows = Math.min(rowsPerBlock, height - y);
+            source.getRGB(0, y, width, rows, block, 0, width);
+            for (int i = 0, length = rows * width; i < length; i++, target += 3) {
+                int rgb = flattenArgb(block[i]);
+                bgr[target] = (byte) rgb;
+                bgr[target + 1] = (byte) (rgb >> 8);
+                bgr[target + 2] = (byte) (rgb >> 16);
+            }
+        }
+    }
+
+    private int flattenArgb(int argb) {
+        int alpha = argb >>> 24;
+        int red = blend((argb >> 16) & 0xFF, backgroundRed, alpha, false);
+        int green = blend((argb >> 8) & 0xFF, backgroundGreen, alpha, false);
+        int blue = blend(argb & 0xFF, backgroundBlue, alpha, false);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private void writeBgr(byte[] bgr, int target, int red, int green, int blue, int alpha, boolean premultiplied) {
+        if (alpha != 0xFF) {
+            red = blend(red, backgroundRed, alpha, premultiplied);
+            green = blend(green, backgroundGreen, alpha, premultiplied);
+            blue = blend(blue, backgroundBlue, alpha, premultiplied);
+        }
+        bgr[target] = (byte) blue;
+        bgr[target + 1] = (byte) green;
+        bgr[target + 2] = (byte) red;
+    }
+
+    private static int blend(int component, int background, int alpha, boolean premultiplied) {
+        int foreground = premultiplied ? component * 255 : component * alpha;
+        return (foreground + background * (255 - alpha) + 127) / 255;
+    }
+
+    private static boolean isPackedArgb(BufferedImage image) {
+        int type = image.getType();
+        return type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE;
+    }
+
+    private static boolean isInterleavedRgba(BufferedImage image) {
+        // Covers TYPE_4BYTE_ABGR as well as the RGBA layout PNG and WEBP readers return as TYPE_CUSTOM
+        ColorModel colorModel = image.getColorModel();
+        Raster raster = image.getRaster();
+        return colorModel instanceof ComponentColorModel
+                && colorModel.getColorSpace().isCS_sRGB()
+                && colorModel.getNumComponents() == 4
+                && colorModel.getTransferType() == DataBuffer.TYPE_BYTE
+                && raster.getSampleModel() instanceof ComponentSampleModel sampleModel
+                && raster.getDataBuffer() instanceof DataBufferByte buffer
+                && buffer.getNumBanks() == 1
+                && sampleModel.getNumBands() == 4
+                && sampleModel.getPixelStride() >= 4;
+    }
+
+    private static boolean isCompact(WritableRaster raster) {
+        return raster.getParent() == null
+                && raster.getSampleModelTranslateX() == 0
+                && raster.getSampleModelTranslateY() == 0
+                && raster.getDataBuffer().getOffset() == 0
+                && (raster.getSampleModel() instanceof SinglePixelPackedSampleModel packed
+                        ? packed.getScanlineStride() == raster.getWidth()
+                        : raster.getSampleModel() instanceof ComponentSampleModel interleaved
+                                && interleaved.getScanlineStride() == raster.getWidth() * interleaved.getPixelStride());
+    }
+}
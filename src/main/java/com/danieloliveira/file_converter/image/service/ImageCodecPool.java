@@ -0,0 +1,132 @@
+package com.danieloliveira.file_converter.image.service;
+
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Consumer;
+
+@Component
+public class ImageCodecPool {
+
+    private static final int MIN_BUFFER_BYTES = 8 * 1024;
+
+    private final int maxBufferBytes;
+    private final Map<ImageFormat, Codecs> codecs = new EnumMap<>(ImageFormat.class);
+
+    public ImageCodecPool(
+            @Value("${conversion.image.codec-pool.max-idle:0}") int maxIdle,
+            @Value("${conversion.image.codec-pool.max-buffer-size:1MB}") DataSize maxBufferSize) {
+
+        int idle = maxIdle > 0 ? maxIdle : Runtime.getRuntime().availableProcessors();
+        this.maxBufferBytes = (int) Math.min(Integer.MAX_VALUE - 8, maxBufferSize.toBytes());
+        for (ImageFormat format : ImageFormat.values()) {
+            codecs.put(format, new Codecs(idle));
+        }
+    }
+
+    public Lease<ImageReader> reader(ImageFormat format) {
+        BlockingDeque<ImageReader> idle = codecs.get(format).readers;
+        ImageReader reader = idle.pollFirst();
+        if (reader == null) {
+            reader = first(ImageIO.getImageReadersByFormatName(format.name()), format);
+        }
+        return new Lease<>(reader, idle, ImageReader::reset, ImageReader::dispose);
+    }
+
+    public Lease<ImageWriter> writer(ImageFormat format) {
+        BlockingDeque<ImageWriter> idle = codecs.get(format).writers;
+        ImageWriter writer = idle.pollFirst();
+        if (writer == null) {
+            writer = first(ImageIO.getImageWritersByFormatName(format.name()), format);
+        }
+        return new Lease<>(writer, idle, ImageWriter::reset, ImageWriter::dispose);
+    }
+
+    public boolean fitsBuffer(long expectedBytes) {
+        return expectedBytes <= maxBufferBytes;
+    }
+
+    public PooledImageOutputStream buffer(ImageFormat format, long expectedBytes) {
+        // Buffers only grow, so after a few requests the pooled ones already fit the common output sizes
+        BlockingDeque<byte[]> idle = codecs.get(format).buffers;
+        int size = (int) Math.max(MIN_BUFFER_BYTES, Math.min(expectedBytes, maxBufferBytes));
+        byte[] buffer = idle.pollFirst();
+        if (buffer == null || buffer.length < size) {
+            buffer = new byte[size];
+        }
+        return new PooledImageOutputStream(buffer, released -> {
+            if (released.length <= maxBufferBytes) {
+                idle.offerFirst(released);
+            }
+        });
+    }
+
+    private static <T> T first(Iterator<T> codecs, ImageFormat format) {
+        if (!codecs.hasNext()) {
+            throw new IllegalStateException("No codec available for " + format.name());
+        }
+        return codecs.next();
+    }
+
+    public static final class Lease<T> implements AutoCloseable {
+
+        private final T codec;
+        private final BlockingDeque<T> idle;
+        private final Consumer<T> reset;
+        private final Consumer<T> dispose;
+        private boolean released;
+
+        private Lease(T codec, BlockingDeque<T> idle, Consumer<T> reset, Consumer<T> dispose) {
+            this.codec = codec;
+            this.idle = idle;
+            this.reset = reset;
+            this.dispose = dispose;
+        }
+
+        public T get() {
+            return codec;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+
+            // A codec that cannot be reset or does not fit in the pool frees its native state right away
+            try {
+                reset.accept(codec);
+            } catch (RuntimeException e) {
+                dispose.accept(codec);
+                return;
+            }
+            if (!idle.offerFirst(codec)) {
+                dispose.accept(codec);
+            }
+        }
+    }
+
+    private static final class Codecs {
+
+        private final BlockingDeque<ImageReader> readers;
+        private final BlockingDeque<ImageWriter> writers;
+        private final BlockingDeque<byte[]> buffers;
+
+        private Codecs(int maxIdle) {
+            this.readers = new LinkedBlockingDeque<>(maxIdle);
+            this.writers = new LinkedBlockingDeque<>(maxIdle);
+            this.buffers = new LinkedBlockingDeque<>(maxIdle);
+        }
+    }
+}
@@ -1,71 +1,241 @@
 package com.danieloliveira.file_converter.image.service;
 
+import com.danieloliveira.file_converter.cache.model.ConversionCacheKey;
+import com.danieloliveira.file_converter.cache.model.ConversionResult;
+import com.danieloliveira.file_converter.cache.service.ConversionCacheService;
+import com.danieloliveira.file_converter.concurrency.AdmissionController;
+import com.danieloliveira.file_converter.concurrency.ConversionThreads;
+import com.danieloliveira.file_converter.detection.FormatSniffer;
 import com.danieloliveira.file_converter.image.exceptions.InvalidImageFormatException;
+import com.danieloliveira.file_converter.image.exceptions.InvalidImageOptionsException;
+import com.danieloliveira.file_converter.image.model.ImageConversionOptions;
 import com.danieloliveira.file_converter.image.model.ImageFormat;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import com.danieloliveira.file_converter.metrics.ConversionTags;
+import com.danieloliveira.file_converter.storage.TemporaryFileResource;
+import io.micrometer.observation.Observation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
+@RequiredArgsConstructor
 public class ImageConverterService {
 
-    public byte[] imageConverter(MultipartFile originalFile, ImageFormat targetFormat) throws IOException {
+    private final ConversionCacheService cache;
+    private final ImageDecoder decoder;
+    private final FormatSniffer sniffer;
+    private final ImageResizer resizer;
+    private final AlphaFlattener flattener;
+    private final ImageCodecPool codecs;
+    private final ConversionMetrics metrics;
+    private final ConversionThreads threads;
+    private final AdmissionController admission;
+
+    public Resource imageConverter(MultipartFile originalFile, ImageFormat targetFormat) throws IOException {
+        return imageConverter(originalFile, targetFormat, ImageConversionOptions.NONE);
+    }
 
-        String incomingMimetype = originalFile.getContentType();
+    public Resource imageConverter(MultipartFile originalFile, ImageFormat targetFormat, ImageConversionOptions options)
+            throws IOException {
+        return imageConverter(originalFile, targetFormat, options, List.of()).resource();
+    }
 
-        boolean isSupported = Arrays.stream(ImageFormat.values())
-                .anyMatch(imageFormat -> imageFormat.getMimeType().equals(incomingMimetype));
+    public ConversionResult imageConverter(MultipartFile originalFile, ImageFormat targetFormat,
+                                           ImageConversionOptions options, Collection<String> ifNoneMatch)
+            throws IOException {
 
-        if (!isSupported) {
-            throw new InvalidImageFormatException("Invalid image format");
-        }
+        validateOptions(targetFormat, options);
 
-        try (InputStream inputStream = originalFile.getInputStream()) {
-            BufferedImage image = ImageIO.read(inputStream);
+        ImageFormat sourceFormat = metrics.observeStage("validation", ConversionTags.image(null, targetFormat),
+                () -> detectSourceFormat(originalFile));
 
-            if (!targetFormat.isSupportsTransparency()) {
-                image = handleTransparency(image);
-            }
+        ConversionTags tags = ConversionTags.image(sourceFormat.name(), targetFormat);
+        metrics.recordInputSize(tags, originalFile.getSize());
+
+        ConversionCacheKey cacheKey = metrics.observeStage("cache-key", tags,
+                () -> cache.createKey(originalFile, targetFormat, options.cacheKey()));
+        if (cacheKey.matches(ifNoneMatch)) {
+            return ConversionResult.notModified(cacheKey.etag());
+        }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Optional<Resource> cached = cache.get(cacheKey);
+        if (cached.isPresent()) {
+            return new ConversionResult(cacheKey.etag(), cached.get());
+        }
 
-            ImageIO.write(image, targetFormat.name().toLowerCase(), baos);
+        TemporaryFileResource convertedImage;
+        try (AdmissionController.Permit permit = admission.admitImage(decoder.estimateDecodedBytes(originalFile, sourceFormat, options))) {
+            BufferedImage decoded = threads.compute(() -> metrics.observeStage("decode", tags,
+                    () -> decoder.decode(originalFile, sourceFormat, !targetFormat.isSupportsTransparency(), options)));
+            BufferedImage image = options.resizes()
+                    ? threads.compute(() -> metrics.observeStage("resize", tags, () -> resizer.resize(decoded, options)))
+                    : decoded;
 
-            return baos.toByteArray();
+            convertedImage = encode(image, targetFormat, tags, options, true);
         }
+        cache.put(cacheKey, convertedImage.getFile().toPath());
+
+        return new ConversionResult(cacheKey.etag(), convertedImage);
     }
 
-    private BufferedImage handleTransparency(BufferedImage originalImage) {
-        if (!originalImage.getColorModel().hasAlpha()) {
-            return originalImage;
+    public Map<ImageFormat, Resource> imageConverter(MultipartFile originalFile, Set<ImageFormat> targetFormats,
+                                                     ImageConversionOptions options) throws IOException {
+        if (targetFormats.isEmpty()) {
+            throw new InvalidImageOptionsException("At least one target format is required");
+        }
+        for (ImageFormat targetFormat : targetFormats) {
+            validateOptions(targetFormat, options);
         }
 
-        BufferedImage newImage = new BufferedImage(
-                originalImage.getWidth(),
-                originalImage.getHeight(),
-                BufferedImage.TYPE_INT_RGB
-        );
+        ImageFormat sourceFormat = detectSourceFormat(originalFile);
 
-        Graphics2D g = newImage.createGraphics();
+        ConversionTags tags = ConversionTags.image(sourceFormat.name(), targetFormats);
+        metrics.recordInputSize(tags, originalFile.getSize());
 
-        try {
-            g.setColor(Color.WHITE);
-            g.fillRect(0, 0, originalImage.getWidth(), originalImage.getHeight());
+        String inputHash = metrics.observeStage("cache-key", tags,
+                () -> cache.createKey(originalFile, targetFormats.iterator().next(), options.cacheKey()).inputHash());
 
-            g.drawImage(originalImage, 0, 0, null);
-        } finally {
-            g.dispose();
+        Map<ImageFormat, Resource> results = new EnumMap<>(ImageFormat.class);
+        Map<ImageFormat, ConversionCacheKey> missing = new EnumMap<>(ImageFormat.class);
+        for (ImageFormat targetFormat : targetFormats) {
+            ConversionCacheKey cacheKey = new ConversionCacheKey(inputHash, targetFormat.name(), options.cacheKey());
+            cache.get(cacheKey).ifPresentOrElse(
+                    cached -> results.put(targetFormat, cached),
+                    () -> missing.put(targetFormat, cacheKey));
+        }
+        if (missing.isEmpty()) {
+            return results;
         }
 
-        originalImage.flush();
+        boolean opaque = missing.keySet().stream().noneMatch(ImageFormat::isSupportsTransparency);
+        Map<ImageFormat, TemporaryFileResource> encoded = new ConcurrentHashMap<>();
+        try (AdmissionController.Permit permit = admission.admitImage(decoder.estimateDecodedBytes(originalFile, sourceFormat, options))) {
+            BufferedImage decoded = threads.compute(() -> metrics.observeStage("decode", tags,
+                    () -> decoder.decode(originalFile, sourceFormat, opaque, options)));
+            BufferedImage image = options.resizes()
+                    ? threads.compute(() -> metrics.observeStage("resize", tags, () -> resizer.resize(decoded, options)))
+                    : decoded;
+
+            // The decoded image is only read from here on, so every writer can share it, each on a CPU worker
+            boolean exclusive = missing.size() == 1;
+            List<Observation.CheckedRunnable<IOException>> encodes = new ArrayList<>();
+            for (ImageFormat targetFormat : missing.keySet()) {
+                ConversionTags formatTags = ConversionTags.image(sourceFormat.name(), targetFormat);
+                encodes.add(() -> encoded.put(targetFormat, encode(image, targetFormat, formatTags, options, exclusive)));
+            }
+            threads.computeAll(encodes);
+        } catch (IOException | RuntimeException e) {
+            for (TemporaryFileResource resource : encoded.values()) {
+                Files.deleteIfExists(resource.getFile().toPath());
+            }
+            throw e;
+        }
+
+        for (Map.Entry<ImageFormat, TemporaryFileResource> entry : encoded.entrySet()) {
+            cache.put(missing.get(entry.getKey()), entry.getValue().getFile().toPath());
+            results.put(entry.getKey(), entry.getValue());
+        }
+
+        return results;
+    }
+
+    public ImageFormat detectSourceFormat(MultipartFile file) throws IOException {
+        return sniffer.detectImage(file).orElseThrow(() -> new InvalidImageFormatException("Invalid image format"));
+    }
 
-        return newImage;
+    public TemporaryFileResource encode(BufferedImage image, ImageFormat targetFormat, ConversionTags tags) throws IOException {
+        return encode(image, targetFormat, tags, ImageConversionOptions.NONE);
+    }
+
+    public TemporaryFileResource encode(BufferedImage image, ImageFormat targetFormat, ConversionTags tags,
+                                        ImageConversionOptions options) throws IOException {
+        return encode(image, targetFormat, tags, options, false);
+    }
+
+    private TemporaryFileResource encode(BufferedImage image, ImageFormat targetFormat, ConversionTags tags,
+                                         ImageConversionOptions options, boolean exclusive) throws IOException {
+        TemporaryFileResource encodedImage = threads.compute(() -> {
+            // An image no other writer reads is flattened in its own buffer instead of a copy
+            BufferedImage outputImage = targetFormat.isSupportsTransparency()
+                    ? image
+                    : metrics.observeStage("transparency", tags,
+                            () -> exclusive ? flattener.flattenInPlace(image) : flattener.flatten(image));
+
+            return metrics.observeStage("encode", tags, () -> TemporaryFileResource.write(
+                    targetFormat.name().toLowerCase(), outputStream -> write(outputImage, targetFormat, options, outputStream)));
+        });
+        metrics.recordOutputSize(tags, encodedImage.contentLength());
+
+        return encodedImage;
+    }
+
+    private void write(BufferedImage image, ImageFormat targetFormat, ImageConversionOptions options,
+                       OutputStream outputStream) throws IOException {
+        // Writers seek back to patch lengths, small images are encoded into a pooled buffer sized from the pixel
+        // count and large ones go through a memory cache that streams out as the writer moves on
+        long expectedBytes = (long) image.getWidth() * image.getHeight();
+        boolean buffered = codecs.fitsBuffer(expectedBytes);
+
+        try (ImageCodecPool.Lease<ImageWriter> writer = codecs.writer(targetFormat);
+             ImageOutputStream imageOutputStream = buffered
+                     ? codecs.buffer(targetFormat, expectedBytes)
+                     : new MemoryCacheImageOutputStream(outputStream)) {
+            ImageWriteParam param = writer.get().getDefaultWriteParam();
+            if ((options.quality() != null || options.isLossless()) && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionType(compressionType(param, options.isLossless()));
+                if (options.quality() != null) {
+                    param.setCompressionQuality(options.quality());
+                }
+            }
+
+            writer.get().setOutput(imageOutputStream);
+            writer.get().write(null, new IIOImage(image, null, null), param);
+
+            if (imageOutputStream instanceof PooledImageOutputStream buffer) {
+                buffer.writeTo(outputStream);
+            }
+        }
+    }
+
+    private static String compressionType(ImageWriteParam param, boolean lossless) {
+        String[] types = param.getCompressionTypes();
+        return Arrays.stream(types)
+                .filter(type -> type.equalsIgnoreCase("lossless") == lossless)
+                .findFirst()
+                .orElse(types[0]);
+    }
+
+    private static void validateOptions(ImageFormat targetFormat, ImageConversionOptions options) {
+        if ((options.width() != null && options.width() < 1) || (options.height() != null && options.height() < 1)) {
+            throw new InvalidImageOptionsException("Width and height must be positive");
+        }
+        if (options.quality() != null && (options.quality() < 0 || options.quality() > 1)) {
+            throw new InvalidImageOptionsException("Quality must be between 0.0 and 1.0");
+        }
+        if (options.isLossless() && targetFormat == ImageFormat.JPEG) {
+            throw new InvalidImageOptionsException("JPEG does not support lossless compression");
+        }
     }
 }
@@ -0,0 +1,144 @@
+package com.danieloliveira.file_converter.image.service;
+
+import com.danieloliveira.file_converter.image.exceptions.ImageTooLargeException;
+import com.danieloliveira.file_converter.image.model.ImageConversionOptions;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import com.danieloliveira.file_converter.storage.FileBackedMultipartFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Iterator;
+
+@Component
+public class ImageDecoder {
+
+    private final long largeImageThresholdPixels;
+    private final int strips;
+    private final long maxPixels;
+    private final AlphaFlattener flattener;
+    private final ImageCodecPool codecs;
+
+    public ImageDecoder(
+            @Value("${conversion.image.large-image-threshold-pixels:16000000}") long largeImageThresholdPixels,
+            @Value("${conversion.image.strips:4}") int strips,
+            @Value("${conversion.image.max-pixels:200000000}") long maxPixels,
+            AlphaFlattener flattener,
+            ImageCodecPool codecs) {
+
+        this.largeImageThresholdPixels = largeImageThresholdPixels;
+        this.strips = Math.max(1, strips);
+        this.maxPixels = maxPixels;
+        this.flattener = flattener;
+        this.codecs = codecs;
+    }
+
+    public BufferedImage decode(MultipartFile file, ImageFormat format, boolean opaque, ImageConversionOptions options)
+            throws IOException {
+        return withReader(file, format, reader -> read(reader, opaque, options));
+    }
+
+    public long estimateDecodedBytes(MultipartFile file, ImageFormat format, ImageConversionOptions options)
+            throws IOException {
+        return withReader(file, format, reader -> {
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            int subsampling = subsampling(width, height, options);
+
+            long decodedWidth = (width + subsampling - 1) / subsampling;
+            long decodedHeight = (height + subsampling - 1) / subsampling;
+            return decodedWidth * decodedHeight * 4;
+        });
+    }
+
+    private <T> T withReader(MultipartFile file, ImageFormat format, ReaderFunction<T> function) throws IOException {
+        // Spooled uploads are read with random access from the file, other uploads are cached in memory instead of
+        // through ImageIO's temporary file cache
+        try (ImageInputStream imageInputStream = file instanceof FileBackedMultipartFile spooled
+                ? new FileImageInputStream(spooled.getPath().toFile())
+                : new MemoryCacheImageInputStream(file.getInputStream());
+             ImageCodecPool.Lease<ImageReader> reader = codecs.reader(format)) {
+
+            reader.get().setInput(imageInputStream, true, true);
+            return function.apply(reader.get());
+        }
+    }
+
+    private BufferedImage read(ImageReader reader, boolean opaque, ImageConversionOptions options) throws IOException {
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        int subsampling = subsampling(width, height, options);
+
+        long decodedPixels = (long) width * height / ((long) subsampling * subsampling);
+        if (decodedPixels >= largeImageThresholdPixels && opaque && hasAlpha(reader)) {
+            return readInStrips(reader, width, height, subsampling);
+        }
+
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return reader.read(0, param);
+    }
+
+    private int subsampling(int width, int height, ImageConversionOptions options) {
+        int subsampling = 1;
+        if (options.resizes()) {
+            // Keep twice the target size so the resizer still has pixels to average
+            Dimension target = options.scaledSize(width, height);
+            subsampling = Math.max(subsampling, Math.min(width / (2 * target.width), height / (2 * target.height)));
+        }
+
+        // Only a requested resize may reduce the image, anything still over the limit is refused instead of
+        // being quietly converted at a lower resolution
+        long pixels = (long) width * height;
+        if (pixels / ((long) subsampling * subsampling) > maxPixels) {
+            throw new ImageTooLargeException("Image of " + width + "x" + height + " exceeds the limit of "
+                    + maxPixels + " pixels");
+        }
+
+        return subsampling;
+    }
+
+    private BufferedImage readInStrips(ImageReader reader, int width, int height, int subsampling) throws IOException {
+        // Readers decode from the start of the image for every source region, so use a few large strips
+        int rowsPerStrip = (height + strips - 1) / strips;
+        rowsPerStrip = (rowsPerStrip + subsampling - 1) / subsampling * subsampling;
+
+        int outputWidth = (width + subsampling - 1) / subsampling;
+        int outputHeight = (height + subsampling - 1) / subsampling;
+
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+        BufferedImage output = new BufferedImage(outputWidth, outputHeight, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < height; y += rowsPerStrip) {
+            param.setSourceRegion(new Rectangle(0, y, width, Math.min(rowsPerStrip, height - y)));
+            flattener.flattenInto(reader.read(0, param), output, y / subsampling);
+        }
+
+        return output;
+    }
+
+    private static boolean hasAlpha(ImageReader reader) throws IOException {
+        ImageTypeSpecifier rawType = reader.getRawImageType(0);
+        if (rawType != null) {
+            return rawType.getColorModel().hasAlpha();
+        }
+
+        Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+        return types.hasNext() && types.next().getColorModel().hasAlpha();
+    }
+
+    @FunctionalInterface
+    private interface ReaderFunction<T> {
+        T apply(ImageReader reader) throws IOException;
+    }
+}
@@ -0,0 +1,60 @@
+package com.danieloliveira.file_converter.image.service;
+
+import com.danieloliveira.file_converter.image.model.ImageConversionOptions;
+import com.danieloliveira.file_converter.image.model.ResizeFit;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+@Component
+public class ImageResizer {
+
+    public BufferedImage resize(BufferedImage image, ImageConversionOptions options) {
+        if (!options.resizes()) {
+            return image;
+        }
+
+        Dimension target = options.scaledSize(image.getWidth(), image.getHeight());
+        BufferedImage resized = downscale(image, target.width, target.height);
+
+        if (options.effectiveFit() == ResizeFit.COVER && options.width() != null && options.height() != null) {
+            return crop(resized, Math.min(options.width(), resized.getWidth()), Math.min(options.height(), resized.getHeight()));
+        }
+        return resized;
+    }
+
+    private static BufferedImage downscale(BufferedImage image, int targetWidth, int targetHeight) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        // Halve at most once per step so bilinear sampling never skips source pixels
+        while (width > targetWidth || height > targetHeight) {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+
+            if (current != image) {
+                current.flush();
+            }
+            current = next;
+        }
+
+        return current;
+    }
+
+    private static BufferedImage crop(BufferedImage image, int width, int height) {
+        return image.getSubimage((image.getWidth() - width) / 2, (image.getHeight() - height) / 2, width, height);
+    }
+}
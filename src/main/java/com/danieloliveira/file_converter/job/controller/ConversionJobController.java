@@ -0,0 +1,126 @@
+package com.danieloliveira.file_converter.job.controller;
+
+import com.danieloliveira.file_converter.cache.model.ConversionResult;
+import com.danieloliveira.file_converter.document.exceptions.DocumentCorruptedOrEmptyException;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.exceptions.ErrorMessage;
+import com.danieloliveira.file_converter.image.exceptions.ImageCorruptedOrEmptyException;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import com.danieloliveira.file_converter.job.model.ConversionJob;
+import com.danieloliveira.file_converter.job.model.JobResponse;
+import com.danieloliveira.file_converter.job.service.ConversionJobService;
+import com.danieloliveira.file_converter.storage.ConversionResponses;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/jobs")
+@CrossOrigin
+@RequiredArgsConstructor
+@Tag(name = "Conversion Jobs", description = "Endpoints for submitting conversions asynchronously and polling for their results.")
+public class ConversionJobController {
+
+    private final ConversionJobService service;
+    private final ConversionResponses responses;
+
+    @Operation(summary = "Submit an image conversion", description = "Queues an image conversion and returns the job ID to poll.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job accepted",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request: Image is empty or corrupted",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "429", description = "Too Many Requests: The image conversion queue is full",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<JobResponse> submitImage(
+            @Parameter(description = "The image file to convert", required = true)
+            @RequestParam("file") MultipartFile image,
+            @Parameter(description = "The target image format", required = true)
+            @RequestParam("targetFormat") ImageFormat targetFormat) throws IOException {
+
+        if (image.isEmpty()) {
+            throw new ImageCorruptedOrEmptyException("Image file is empty or corrupted");
+        }
+
+        return accepted(service.submitImage(image, targetFormat));
+    }
+
+    @Operation(summary = "Submit a document conversion", description = "Queues a document conversion and returns the job ID to poll.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job accepted",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request: File is empty or corrupted",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported Media Type: PDF input cannot be converted to DOCX",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "429", description = "Too Many Requests: The document conversion queue is full",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @PostMapping(value = "/documents", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<JobResponse> submitDocument(
+            @Parameter(description = "The document file to convert", required = true)
+            @RequestParam("file") MultipartFile document,
+            @Parameter(description = "The target document format", required = true)
+            @RequestParam("targetFormat") DocFormat targetFormat) throws IOException {
+
+        if (document.isEmpty()) {
+            throw new DocumentCorruptedOrEmptyException("Document file is empty or corrupted");
+        }
+
+        return accepted(service.submitDocument(document, targetFormat));
+    }
+
+    @Operation(summary = "Get job status", description = "Returns the current status of a conversion job.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Not Found: Unknown or expired job",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<JobResponse> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(JobResponse.from(service.getJob(id)));
+    }
+
+    @Operation(summary = "Download job result", description = "Downloads the converted file of a completed job.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Converted file returned"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range of the converted file"),
+            @ApiResponse(responseCode = "304", description = "Not Modified: The converted file still matches the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Not Found: Unknown or expired job",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "409", description = "Conflict: The job has not completed successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class)))
+    })
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Resource> getResult(@PathVariable String id) {
+        ConversionJob job = service.getJob(id);
+        Resource result = service.getResult(id);
+
+        // Conditional and range requests on the GET are answered by Spring from the ETag and the file-backed body
+        return responses.of(new ConversionResult(job.getEtag(), result),
+                MediaType.parseMediaType(job.getMimeType()), "converted." + job.getExtension());
+    }
+
+    private ResponseEntity<JobResponse> accepted(ConversionJob job) {
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/jobs/" + job.getId()))
+                .body(JobResponse.from(job));
+    }
+}
@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.job.exceptions;
+
+public class JobNotFoundException extends RuntimeException {
+    public JobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.job.exceptions;
+
+public class JobQueueFullException extends RuntimeException {
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+}
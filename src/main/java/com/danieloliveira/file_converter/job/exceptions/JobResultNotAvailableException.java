@@ -0,0 +1,7 @@
+package com.danieloliveira.file_converter.job.exceptions;
+
+public class JobResultNotAvailableException extends RuntimeException {
+    public JobResultNotAvailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package com.danieloliveira.file_converter.job.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+@Getter
+@Setter
+public class ConversionJob {
+
+    private final String id;
+    private final JobType type;
+    private final String targetFormat;
+    private final String mimeType;
+    private final String extension;
+    private final Instant createdAt;
+
+    private volatile JobStatus status;
+    private volatile String error;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Path resultPath;
+    private volatile String etag;
+
+    public ConversionJob(String id, JobType type, String targetFormat, String mimeType, String extension) {
+        this.id = id;
+        this.type = type;
+        this.targetFormat = targetFormat;
+        this.mimeType = mimeType;
+        this.extension = extension;
+        this.createdAt = Instant.now();
+        this.status = JobStatus.QUEUED;
+    }
+
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED;
+    }
+}
@@ -0,0 +1,26 @@
+package com.danieloliveira.file_converter.job.model;
+
+import java.time.Instant;
+
+public record JobResponse(
+        String id,
+        JobType type,
+        String targetFormat,
+        JobStatus status,
+        String error,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt) {
+
+    public static JobResponse from(ConversionJob job) {
+        return new JobResponse(
+                job.getId(),
+                job.getType(),
+                job.getTargetFormat(),
+                job.getStatus(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt());
+    }
+}
@@ -0,0 +1,8 @@
+package com.danieloliveira.file_converter.job.model;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.danieloliveira.file_converter.job.model;
+
+public enum JobType {
+    IMAGE,
+    DOCUMENT
+}
@@ -0,0 +1,214 @@
+package com.danieloliveira.file_converter.job.service;
+
+import com.danieloliveira.file_converter.cache.model.ConversionResult;
+import com.danieloliveira.file_converter.concurrency.ConversionThreads;
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.document.service.DocumentConverterService;
+import com.danieloliveira.file_converter.image.model.ImageConversionOptions;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import com.danieloliveira.file_converter.image.service.ImageConverterService;
+import com.danieloliveira.file_converter.job.exceptions.JobNotFoundException;
+import com.danieloliveira.file_converter.job.exceptions.JobQueueFullException;
+import com.danieloliveira.file_converter.job.exceptions.JobResultNotAvailableException;
+import com.danieloliveira.file_converter.job.model.ConversionJob;
+import com.danieloliveira.file_converter.job.model.JobStatus;
+import com.danieloliveira.file_converter.job.model.JobType;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import com.danieloliveira.file_converter.storage.FileBackedMultipartFile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class ConversionJobService {
+
+    private final ImageConverterService imageConverterService;
+    private final DocumentConverterService documentConverterService;
+    private final ConversionMetrics metrics;
+    private final Path directory;
+    private final Duration resultTtl;
+
+    private static final Pattern JOB_FILE =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.[a-z0-9]+");
+
+    private final Map<String, ConversionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<JobType, ThreadPoolExecutor> executors = new EnumMap<>(JobType.class);
+
+    public ConversionJobService(
+            ImageConverterService imageConverterService,
+            DocumentConverterService documentConverterService,
+            ConversionMetrics metrics,
+            ConversionThreads threads,
+            @Value("${conversion.jobs.directory:${java.io.tmpdir}/file-converter-jobs}") Path directory,
+            @Value("${conversion.jobs.result-ttl:1h}") Duration resultTtl,
+            @Value("${conversion.jobs.queue-capacity:100}") int queueCapacity,
+            @Value("${conversion.jobs.image.workers:4}") int imageWorkers,
+            @Value("${conversion.jobs.document.workers:2}") int documentWorkers) throws IOException {
+
+        this.imageConverterService = imageConverterService;
+        this.documentConverterService = documentConverterService;
+        this.metrics = metrics;
+        this.directory = directory;
+        this.resultTtl = resultTtl;
+
+        Files.createDirectories(directory);
+        deleteLeftoverFiles();
+
+        executors.put(JobType.IMAGE, createExecutor(threads.ioThreads("image-job-"), imageWorkers, queueCapacity));
+        executors.put(JobType.DOCUMENT, createExecutor(threads.ioThreads("document-job-"), documentWorkers, queueCapacity));
+    }
+
+    public ConversionJob submitImage(MultipartFile file, ImageFormat targetFormat) throws IOException {
+        imageConverterService.detectSourceFormat(file);
+
+        ConversionJob job = new ConversionJob(UUID.randomUUID().toString(), JobType.IMAGE,
+                targetFormat.name(), targetFormat.getMimeType(), targetFormat.name().toLowerCase());
+
+        return submit(job, file, source -> imageConverterService.imageConverter(source, targetFormat,
+                ImageConversionOptions.NONE, List.of()));
+    }
+
+    public ConversionJob submitDocument(MultipartFile file, DocFormat targetFormat) throws IOException {
+        documentConverterService.detectSourceFormat(file, targetFormat);
+
+        ConversionJob job = new ConversionJob(UUID.randomUUID().toString(), JobType.DOCUMENT,
+                targetFormat.name(), targetFormat.getMimeType(), targetFormat.getExtension());
+
+        return submit(job, file, source -> documentConverterService.documentConverter(source, targetFormat, List.of()));
+    }
+
+    public ConversionJob getJob(String id) {
+        ConversionJob job = jobs.get(id);
+        if (job == null) {
+            throw new JobNotFoundException("Job not found: " + id);
+        }
+        return job;
+    }
+
+    public Resource getResult(String id) {
+        ConversionJob job = getJob(id);
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new JobResultNotAvailableException("Job " + id + " has no result, current status is " + job.getStatus());
+        }
+        return new FileSystemResource(job.getResultPath());
+    }
+
+    @Scheduled(fixedDelayString = "${conversion.jobs.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        Instant expiredBefore = Instant.now().minus(resultTtl);
+
+        jobs.values().removeIf(job -> {
+            boolean expired = job.isFinished() && job.getFinishedAt().isBefore(expiredBefore);
+            if (expired && job.getResultPath() != null) {
+                deleteQuietly(job.getResultPath());
+            }
+            return expired;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    private ConversionJob submit(ConversionJob job, MultipartFile file, JobConversion conversion) throws IOException {
+        FileBackedMultipartFile source = FileBackedMultipartFile.copyOf(file, directory.resolve(job.getId() + ".input"));
+        jobs.put(job.getId(), job);
+
+        try {
+            executors.get(job.getType()).execute(() -> run(job, source, conversion));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(source.getPath());
+            throw new JobQueueFullException("The " + job.getType().name().toLowerCase() + " conversion queue is full, try again later");
+        }
+
+        return job;
+    }
+
+    private void run(ConversionJob job, FileBackedMultipartFile source, JobConversion conversion) {
+        job.setStartedAt(Instant.now());
+        job.setStatus(JobStatus.RUNNING);
+        metrics.recordQueueWait(job.getType().name().toLowerCase() + "-jobs", Duration.between(job.getCreatedAt(), job.getStartedAt()));
+
+        try {
+            ConversionResult result = conversion.convert(source);
+            Path resultPath = directory.resolve(job.getId() + "." + job.getExtension());
+
+            try (InputStream inputStream = result.resource().getInputStream()) {
+                Files.copy(inputStream, resultPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            job.setResultPath(resultPath);
+            job.setEtag(result.etag());
+            job.setFinishedAt(Instant.now());
+            job.setStatus(JobStatus.COMPLETED);
+        } catch (Exception e) {
+            log.warn("Conversion job {} failed: {}", job.getId(), e.getMessage());
+            job.setError(e.getMessage());
+            job.setFinishedAt(Instant.now());
+            job.setStatus(JobStatus.FAILED);
+        } finally {
+            deleteQuietly(source.getPath());
+        }
+    }
+
+    private void deleteLeftoverFiles() throws IOException {
+        // Only inputs and results named after a job id are ours, the directory may be shared with other data
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> JOB_FILE.matcher(path.getFileName().toString()).matches())
+                    .filter(Files::isRegularFile)
+                    .forEach(ConversionJobService::deleteQuietly);
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor(ThreadFactory threadFactory, int workers, int queueCapacity) {
+        return new ThreadPoolExecutor(
+                workers,
+                workers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface JobConversion {
+        ConversionResult convert(MultipartFile source) throws IOException;
+    }
+}
@@ -0,0 +1,107 @@
+package com.danieloliveira.file_converter.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+public class ConversionMetrics {
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public <T, E extends Throwable> T observeStage(String stage, ConversionTags tags,
+                                                   Observation.CheckedCallable<T, E> callable) throws E {
+        return Observation.createNotStarted("conversion.stage", observationRegistry)
+                .contextualName("conversion " + stage)
+                .lowCardinalityKeyValue("stage", stage)
+                .lowCardinalityKeyValues(tags.toKeyValues())
+                .observeChecked(callable);
+    }
+
+    public void recordInputSize(ConversionTags tags, long bytes) {
+        sizeSummary("conversion.input.size", tags).record(bytes);
+    }
+
+    public void recordOutputSize(ConversionTags tags, long bytes) {
+        sizeSummary("conversion.output.size", tags).record(bytes);
+    }
+
+    public void recordQueueWait(String queue, Duration wait) {
+        Timer.builder("conversion.queue.wait")
+                .description("Time a conversion waited for a worker or office process")
+                .tag("queue", queue)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(wait);
+    }
+
+    public void recordOfficeWarmUp(Duration duration) {
+        Timer.builder("office.process.warm-up")
+                .description("Time an office process spent on warm-up conversions after starting")
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    public void recordOfficeStartUp(String trigger, Duration duration) {
+        Timer.builder("office.process.start-up")
+                .description("Time from launching an office process until it is warmed up and accepts conversions")
+                .tag("trigger", trigger)
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    public void recordOfficePoolReady(Duration duration) {
+        Timer.builder("office.pool.ready")
+                .description("Time the office process pool took to start its first processes and report up")
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    public void recordOfficeFirstTask(Duration duration) {
+        Timer.builder("office.process.first-task")
+                .description("Duration of the first conversion an office process ran after starting")
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    public void recordMultipartParse(String uri, long nanos) {
+        Timer.builder("conversion.multipart.parse")
+                .description("Time spent parsing multipart uploads")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+    }
+
+    public void recordResponseWrite(String uri, long nanos) {
+        Timer.builder("conversion.response.write")
+                .description("Time spent writing conversion results to the client")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+    }
+
+    public void recordFailure(Throwable exception, int status) {
+        meterRegistry.counter("conversion.failures",
+                        "exception", exception.getClass().getSimpleName(),
+                        "status", String.valueOf(status))
+                .increment();
+    }
+
+    private DistributionSummary sizeSummary(String name, ConversionTags tags) {
+        return DistributionSummary.builder(name)
+                .baseUnit("bytes")
+                .tags(tags.toTags())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.danieloliveira.file_converter.metrics;
+
+import com.danieloliveira.file_converter.cache.service.ConversionCacheService;
+import com.danieloliveira.file_converter.concurrency.AdmissionController;
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ConversionStatsBinder implements MeterBinder {
+
+    private final ConversionCacheService cache;
+    private final OfficeProcessPool officeProcessPool;
+    private final AdmissionController admission;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("conversion.cache.requests", cache, c -> c.getStats().memoryHits())
+                .tag("result", "memory-hit")
+                .register(registry);
+        FunctionCounter.builder("conversion.cache.requests", cache, c -> c.getStats().diskHits())
+                .tag("result", "disk-hit")
+                .register(registry);
+        FunctionCounter.builder("conversion.cache.requests", cache, c -> c.getStats().misses())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("conversion.cache.evictions", cache, c -> c.getStats().evictions())
+                .register(registry);
+        Gauge.builder("conversion.cache.size", cache, c -> c.getStats().memorySizeBytes())
+                .baseUnit("bytes")
+                .tag("tier", "memory")
+                .register(registry);
+        Gauge.builder("conversion.cache.size", cache, c -> c.getStats().diskSizeBytes())
+                .baseUnit("bytes")
+                .tag("tier", "disk")
+                .register(registry);
+
+        Gauge.builder("office.pool.processes", officeProcessPool, p -> p.getStats().runningProcesses())
+                .register(registry);
+        Gauge.builder("office.pool.idle", officeProcessPool, p -> p.getStats().idleProcesses())
+                .register(registry);
+        Gauge.builder("office.pool.warming", officeProcessPool, p -> p.getStats().warmingProcesses())
+                .register(registry);
+        Gauge.builder("office.pool.queued", officeProcessPool, p -> p.getStats().queuedTasks())
+                .register(registry);
+
+        for (ConversionClass conversionClass : ConversionClass.values()) {
+            bindAdmission(registry, conversionClass);
+        }
+        Gauge.builder("conversion.admission.memory.reserved", admission,
+                        a -> a.getStats(ConversionClass.IMAGE).reservedMemoryBytes())
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void bindAdmission(MeterRegistry registry, ConversionClass conversionClass) {
+        String tag = conversionClass.getTag();
+
+        Gauge.builder("conversion.admission.in-flight", admission, a -> a.getStats(conversionClass).inFlight())
+                .tag("class", tag)
+                .register(registry);
+        Gauge.builder("conversion.admission.waiting", admission, a -> a.getStats(conversionClass).waiting())
+                .tag("class", tag)
+                .register(registry);
+        FunctionCounter.builder("conversion.admission.requests", admission,
+                        a -> a.getStats(conversionClass).admittedImmediately())
+                .tags("class", tag, "outcome", "admitted")
+                .register(registry);
+        FunctionCounter.builder("conversion.admission.requests", admission,
+                        a -> a.getStats(conversionClass).admittedAfterQueueing())
+                .tags("class", tag, "outcome", "queued")
+                .register(registry);
+        FunctionCounter.builder("conversion.admission.requests", admission,
+                        a -> a.getStats(conversionClass).rejectedQueueFull())
+                .tags("class", tag, "outcome", "rejected-queue-full")
+                .register(registry);
+        FunctionCounter.builder("conversion.admission.requests", admission,
+                        a -> a.getStats(conversionClass).rejectedTimeout())
+                .tags("class", tag, "outcome", "rejected-timeout")
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.danieloliveira.file_converter.metrics;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+public record ConversionTags(String type, String source, String target, String strategy) {
+
+    public static ConversionTags image(String source, Enum<?> target) {
+        return new ConversionTags("image", source, target.name(), "ImageIO");
+    }
+
+    public static ConversionTags document(String source, Enum<?> target) {
+        return new ConversionTags("document", source, target.name(), "none");
+    }
+
+    public static ConversionTags image(String source, Collection<? extends Enum<?>> targets) {
+        return new ConversionTags("image", source, join(targets), "ImageIO");
+    }
+
+    public static ConversionTags document(String source, Collection<? extends Enum<?>> targets) {
+        return new ConversionTags("document", source, join(targets), "none");
+    }
+
+    public ConversionTags withStrategy(Object strategy) {
+        return new ConversionTags(type, source, target, strategy.getClass().getSimpleName());
+    }
+
+    private static String join(Collection<? extends Enum<?>> targets) {
+        // Request order would give PNG+JPEG and JPEG+PNG separate series
+        return targets.stream()
+                .sorted(Comparator.comparingInt(Enum::ordinal))
+                .map(Enum::name)
+                .distinct()
+                .collect(Collectors.joining("+"));
+    }
+
+    KeyValues toKeyValues() {
+        return KeyValues.of(
+                "type", type,
+                "source", source == null ? "unknown" : source,
+                "target", target,
+                "strategy", strategy);
+    }
+
+    Tags toTags() {
+        return Tags.of(
+                "type", type,
+                "source", source == null ? "unknown" : source,
+                "target", target,
+                "strategy", strategy);
+    }
+}
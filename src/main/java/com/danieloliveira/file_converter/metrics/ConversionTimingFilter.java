@@ -0,0 +1,143 @@
+package com.danieloliveira.file_converter.metrics;
+
+import com.danieloliveira.file_converter.storage.SpoolingMultipartResolver;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class ConversionTimingFilter extends OncePerRequestFilter {
+
+    private final ConversionMetrics metrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        TimedResponse timedResponse = new TimedResponse(response);
+        chain.doFilter(request, timedResponse);
+
+        String uri = uriTag(request);
+        // Parsing stays in the DispatcherServlet, so upload errors still go through the exception handlers
+        if (request.getAttribute(SpoolingMultipartResolver.PARSE_NANOS_ATTRIBUTE) instanceof Long multipartNanos) {
+            metrics.recordMultipartParse(uri, multipartNanos);
+        }
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    timedResponse.record(uri);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            timedResponse.record(uri);
+        }
+    }
+
+    private static String uriTag(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    private class TimedResponse extends HttpServletResponseWrapper {
+
+        private volatile long firstWrite = -1;
+        private ServletOutputStream outputStream;
+
+        TimedResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new TimedOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        void record(String uri) {
+            if (firstWrite >= 0) {
+                metrics.recordResponseWrite(uri, System.nanoTime() - firstWrite);
+            }
+        }
+
+        private void markWrite() {
+            if (firstWrite < 0) {
+                firstWrite = System.nanoTime();
+            }
+        }
+
+        private class TimedOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            TimedOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                markWrite();
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                markWrite();
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
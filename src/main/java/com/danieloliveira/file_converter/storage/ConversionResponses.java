@@ -0,0 +1,115 @@
+package com.danieloliveira.file_converter.storage;
+
+import com.danieloliveira.file_converter.cache.model.ConversionResult;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+public class ConversionResponses {
+
+    // Results never change for the same input, but clients have to revalidate since the request carries the upload
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final boolean compressionEnabled;
+    private final List<MediaType> compressibleTypes;
+
+    public ConversionResponses(
+            @Value("${server.compression.enabled:false}") boolean compressionEnabled,
+            @Value("${server.compression.mime-types:text/plain,text/csv,application/pdf,application/json}") String[] compressibleTypes) {
+
+        this.compressionEnabled = compressionEnabled;
+        this.compressibleTypes = Arrays.stream(compressibleTypes).map(MediaType::parseMediaType).toList();
+    }
+
+    public ResponseEntity<Resource> of(ConversionResult result, MediaType contentType, String filename) {
+        HttpServletRequest request = currentRequest();
+        boolean compressible = isCompressible(contentType);
+        String etag = compressible && mayBeCompressed(request) ? "W/" + result.etag() : result.etag();
+
+        if (result.isNotModified()) {
+            return withVary(ResponseEntity.status(HttpStatus.NOT_MODIFIED), compressible)
+                    .eTag(etag)
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+
+        Resource body = result.resource() instanceof TemporaryFileResource temporary
+                ? temporary.releaseAfterRequest()
+                : result.resource();
+        if (request != null && !ifRangeMatches(request, result.etag())) {
+            // Spring only checks If-Range on GET, and it never splits a plain stream into ranges
+            body = new InputStreamResource(body);
+        }
+
+        return withVary(ResponseEntity.ok(), compressible)
+                .contentType(contentType)
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private boolean isCompressible(MediaType contentType) {
+        return compressionEnabled && compressibleTypes.stream()
+                .anyMatch(type -> type.getType().equalsIgnoreCase(contentType.getType())
+                        && type.getSubtype().equalsIgnoreCase(contentType.getSubtype()));
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag) {
+        // If-Range uses the strong comparison, and results carry no Last-Modified a date could match
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        return request.getHeader(HttpHeaders.RANGE) == null || ifRange == null || ifRange.trim().equals(etag);
+    }
+
+    private static boolean mayBeCompressed(HttpServletRequest request) {
+        // Tomcat only compresses responses without a strong tag. The gzip copy gets a weak tag, range requests keep
+        // the identity body and the strong tag that If-Range compares against
+        if (request == null || request.getHeader(HttpHeaders.RANGE) != null) {
+            return false;
+        }
+
+        for (String header : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String coding : header.split(",")) {
+                String[] parameters = coding.split(";");
+                if (parameters[0].trim().equalsIgnoreCase("gzip") && !isRefused(parameters)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRefused(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim().toLowerCase();
+            if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <B extends ResponseEntity.HeadersBuilder<B>> B withVary(B builder, boolean compressible) {
+        return compressible ? builder.varyBy(HttpHeaders.ACCEPT_ENCODING) : builder;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest()
+                : null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.danieloliveira.file_converter.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public final class LocalUpload implements Closeable {
+
+    private final Path path;
+    private final boolean temporary;
+
+    private LocalUpload(Path path, boolean temporary) {
+        this.path = path;
+        this.temporary = temporary;
+    }
+
+    public static LocalUpload of(MultipartFile file, String prefix, String suffix) throws IOException {
+        if (file instanceof FileBackedMultipartFile fileBacked) {
+            return new LocalUpload(fileBacked.getPath(), false);
+        }
+
+        Path path = Files.createTempFile(prefix, suffix);
+        try (InputStream inputStream = file.getInputStream()) {
+            Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new LocalUpload(path, true);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (temporary) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
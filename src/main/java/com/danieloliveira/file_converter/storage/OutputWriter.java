@@ -0,0 +1,10 @@
+package com.danieloliveira.file_converter.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@FunctionalInterface
+public interface OutputWriter {
+
+    void writeTo(OutputStream outputStream) throws IOException;
+}
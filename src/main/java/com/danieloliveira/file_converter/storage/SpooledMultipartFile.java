@@ -0,0 +1,27 @@
+package com.danieloliveira.file_converter.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public class SpooledMultipartFile extends FileBackedMultipartFile {
+
+    private final long size;
+
+    public SpooledMultipartFile(String name, String originalFilename, String contentType, Path path, long size) {
+        super(name, originalFilename, contentType, path);
+        this.size = size;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        // Like a servlet Part, the upload is moved rather than copied and cannot be read again afterwards
+        Files.move(getPath(), dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
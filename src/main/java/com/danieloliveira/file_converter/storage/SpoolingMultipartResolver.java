@@ -0,0 +1,97 @@
+package com.danieloliveira.file_converter.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.support.DefaultMultipartHttpServletRequest;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public class SpoolingMultipartResolver extends StandardServletMultipartResolver {
+
+    public static final String PARSE_NANOS_ATTRIBUTE = SpoolingMultipartResolver.class.getName() + ".parseNanos";
+    private static final String SPOOLED_FILES_ATTRIBUTE = SpoolingMultipartResolver.class.getName() + ".spooledFiles";
+
+    private final Path directory;
+
+    public SpoolingMultipartResolver(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        long start = System.nanoTime();
+        MultipartHttpServletRequest resolved = super.resolveMultipart(request);
+
+        // Async dispatches resolve the same request again, they have to see the files spooled the first time
+        @SuppressWarnings("unchecked")
+        MultiValueMap<String, MultipartFile> existing =
+                (MultiValueMap<String, MultipartFile>) request.getAttribute(SPOOLED_FILES_ATTRIBUTE);
+        if (existing != null) {
+            return new DefaultMultipartHttpServletRequest(resolved, existing, Map.of(), Map.of());
+        }
+
+        MultiValueMap<String, MultipartFile> spooled = new LinkedMultiValueMap<>();
+        try {
+            for (Map.Entry<String, List<MultipartFile>> entry : resolved.getMultiFileMap().entrySet()) {
+                for (MultipartFile file : entry.getValue()) {
+                    spooled.add(entry.getKey(), spool(file));
+                }
+            }
+        } catch (IOException e) {
+            deleteSpooled(spooled);
+            super.cleanupMultipart(resolved);
+            throw new MultipartException("Could not store the uploaded files", e);
+        }
+
+        request.setAttribute(SPOOLED_FILES_ATTRIBUTE, spooled);
+        // Recorded by the timing filter once the handler mapping has set the URI pattern
+        request.setAttribute(PARSE_NANOS_ATTRIBUTE, System.nanoTime() - start);
+        return new DefaultMultipartHttpServletRequest(resolved, spooled, Map.of(), Map.of());
+    }
+
+    @Override
+    public void cleanupMultipart(MultipartHttpServletRequest request) {
+        deleteSpooled(request.getMultiFileMap());
+        request.removeAttribute(SPOOLED_FILES_ATTRIBUTE);
+        super.cleanupMultipart(request);
+    }
+
+    private SpooledMultipartFile spool(MultipartFile file) throws IOException {
+        // The container already wrote the part to the upload directory, so this is a rename rather than a copy
+        long size = file.getSize();
+        Path path = Files.createTempFile(directory, "upload-", ".part");
+        try {
+            file.transferTo(path.toFile());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        return new SpooledMultipartFile(file.getName(), file.getOriginalFilename(), file.getContentType(), path, size);
+    }
+
+    private static void deleteSpooled(MultiValueMap<String, MultipartFile> files) {
+        for (List<MultipartFile> values : files.values()) {
+            for (MultipartFile file : values) {
+                if (file instanceof SpooledMultipartFile spooled) {
+                    try {
+                        Files.deleteIfExists(spooled.getPath());
+                    } catch (IOException e) {
+                        log.warn("Could not delete uploaded file {}: {}", spooled.getPath(), e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+}
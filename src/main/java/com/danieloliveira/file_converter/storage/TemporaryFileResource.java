@@ -0,0 +1,67 @@
+package com.danieloliveira.file_converter.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+public class TemporaryFileResource extends FileSystemResource {
+
+    private final Path path;
+
+    public TemporaryFileResource(Path path) {
+        super(path);
+        this.path = path;
+    }
+
+    public static TemporaryFileResource write(String extension, OutputWriter writer) throws IOException {
+        Path path = Files.createTempFile("converted-", "." + extension);
+
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+            writer.writeTo(outputStream);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        return new TemporaryFileResource(path);
+    }
+
+    public FileSystemResource releaseAfterRequest() {
+        // Range requests open the body once per range, so the file has to outlive each stream and goes with the request
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                "temporary-file:" + path, this::discard, RequestAttributes.SCOPE_REQUEST);
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FilterInputStream(super.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    Files.deleteIfExists(path);
+                }
+            }
+        };
+    }
+
+    public void discard() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}: {}", path, e.getMessage());
+        }
+    }
+}
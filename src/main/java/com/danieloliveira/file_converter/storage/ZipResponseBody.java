@@ -0,0 +1,74 @@
+package com.danieloliveira.file_converter.storage;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public final class ZipResponseBody {
+
+    private ZipResponseBody() {
+    }
+
+    public static StreamingResponseBody of(Map<String, ? extends Resource> entries, int compressionLevel) {
+        List<TemporaryFileResource> temporary = entries.values().stream()
+                .filter(TemporaryFileResource.class::isInstance)
+                .map(TemporaryFileResource.class::cast)
+                .toList();
+        discardAfterRequest(temporary);
+
+        return outputStream -> {
+            try {
+                ZipOutputStream zip = new ZipOutputStream(outputStream);
+                zip.setLevel(compressionLevel);
+
+                for (Map.Entry<String, ? extends Resource> entry : entries.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(entry.getKey()));
+                    try (InputStream inputStream = entry.getValue().getInputStream()) {
+                        inputStream.transferTo(zip);
+                    }
+                    zip.closeEntry();
+                    zip.flush();
+                }
+                zip.finish();
+                zip.flush();
+            } finally {
+                temporary.forEach(TemporaryFileResource::discard);
+            }
+        };
+    }
+
+    private static void discardAfterRequest(List<TemporaryFileResource> temporary) {
+        // Request scoped callbacks run before an async body is written, so results the body never gets to, because
+        // the client left or the request timed out first, are discarded when the async processing completes
+        if (temporary.isEmpty()
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+
+        WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(
+                ZipResponseBody.class.getName(), new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        temporary.forEach(TemporaryFileResource::discard);
+                    }
+                });
+    }
+
+    public static String entryName(String originalFilename, String suffix, String extension) {
+        String filename = StringUtils.getFilename(originalFilename);
+        String baseName = StringUtils.hasText(filename) ? StringUtils.stripFilenameExtension(filename) : "converted";
+        return baseName + "-" + suffix + "." + extension;
+    }
+}
@@ -0,0 +1,6 @@
+package com.danieloliveira.file_converter.store.model;
+
+import java.time.Instant;
+
+public record StoredArtifact(String contentHash, long sizeBytes, Instant createdAt) {
+}
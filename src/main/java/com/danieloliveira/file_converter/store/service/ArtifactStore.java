@@ -0,0 +1,428 @@
+package com.danieloliveira.file_converter.store.service;
+
+import com.danieloliveira.file_converter.cache.model.ConversionCacheKey;
+import com.danieloliveira.file_converter.store.model.StoredArtifact;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class ArtifactStore {
+
+    private static final String PUT = "P";
+    private static final String DELETE = "D";
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final boolean enabled;
+    private final Path objects;
+    private final Path staging;
+    private final Path indexFile;
+    private final long maxBytes;
+    private final Duration ttl;
+    private final ExecutorService writer;
+
+    private final Map<ConversionCacheKey, StoredArtifact> index = new ConcurrentHashMap<>();
+    private final Map<String, Integer> references = new HashMap<>();
+    private final AtomicLong sizeBytes = new AtomicLong();
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private FileChannel indexLog;
+    private int indexRecords;
+
+    public ArtifactStore(
+            @Value("${conversion.store.enabled:true}") boolean enabled,
+            @Value("${conversion.store.directory:${java.io.tmpdir}/file-converter-store}") Path directory,
+            @Value("${conversion.store.max-size:2GB}") DataSize maxSize,
+            @Value("${conversion.store.ttl:7d}") Duration ttl,
+            @Value("${conversion.store.max-pending-writes:64}") int maxPendingWrites) throws IOException {
+
+        this.enabled = enabled;
+        this.objects = directory.resolve("objects");
+        this.staging = directory.resolve("staging");
+        this.indexFile = directory.resolve("index.log");
+        this.maxBytes = maxSize.toBytes();
+        this.ttl = ttl;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, maxPendingWrites)),
+                runnable -> new Thread(runnable, "artifact-store-writer"));
+
+        if (enabled) {
+            recover();
+        }
+    }
+
+    public Optional<Resource> get(ConversionCacheKey key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        StoredArtifact artifact = index.get(key);
+        if (artifact == null || isExpired(artifact, Instant.now())) {
+            return Optional.empty();
+        }
+
+        Path object = objectPath(artifact.contentHash());
+        if (!Files.isRegularFile(object)) {
+            log.warn("Stored conversion {} is missing, dropping it from the index", object);
+            remove(key, artifact);
+            return Optional.empty();
+        }
+
+        return Optional.of(new FileSystemResource(object));
+    }
+
+    public boolean contains(ConversionCacheKey key) {
+        if (!enabled) {
+            return false;
+        }
+
+        StoredArtifact artifact = index.get(key);
+        return artifact != null && !isExpired(artifact, Instant.now());
+    }
+
+    public void put(ConversionCacheKey key, Path result) {
+        if (!enabled) {
+            return;
+        }
+
+        // Hashing and syncing happen on the writer thread, the request only pays for linking the result into staging
+        Path staged;
+        try {
+            staged = stage(result);
+        } catch (IOException e) {
+            log.warn("Could not store conversion result: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            writer.execute(() -> commit(key, staged));
+        } catch (RejectedExecutionException e) {
+            log.debug("Too many pending artifact writes, not storing conversion result");
+            deleteQuietly(staged);
+        }
+    }
+
+    public int getEntries() {
+        return index.size();
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes.get();
+    }
+
+    private Path stage(Path result) throws IOException {
+        Path staged = staging.resolve("artifact-" + UUID.randomUUID() + ".tmp");
+        try {
+            return Files.createLink(staged, result);
+        } catch (IOException | UnsupportedOperationException e) {
+            // The store is on another file system, the result is deleted once it is sent so it has to be copied now
+            return Files.copy(result, staged);
+        }
+    }
+
+    private void commit(ConversionCacheKey key, Path staged) {
+        try {
+            // The object is complete and on disk before it is renamed into place and before the index points at it
+            String contentHash = hashAndSync(staged);
+            Path object = objectPath(contentHash);
+            Files.createDirectories(object.getParent());
+
+            indexLock.lock();
+            try {
+                if (Files.exists(object)) {
+                    Files.deleteIfExists(staged);
+                } else {
+                    Files.move(staged, object, StandardCopyOption.ATOMIC_MOVE);
+                }
+
+                StoredArtifact artifact = new StoredArtifact(contentHash, Files.size(object), Instant.now());
+                append(putRecord(key, artifact));
+                reference(artifact);
+                StoredArtifact previous = index.put(key, artifact);
+                if (previous != null) {
+                    release(previous);
+                }
+            } finally {
+                indexLock.unlock();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not store conversion result: {}", e.getMessage());
+            deleteQuietly(staged);
+            return;
+        }
+
+        if (sizeBytes.get() > maxBytes) {
+            collectGarbage();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${conversion.store.gc-interval-ms:600000}")
+    public void collectGarbage() {
+        if (!enabled) {
+            return;
+        }
+
+        // A lock instead of synchronized so virtual threads deleting files do not pin their carrier
+        indexLock.lock();
+        try {
+            Instant now = Instant.now();
+            List<Map.Entry<ConversionCacheKey, StoredArtifact>> oldestFirst = index.entrySet().stream()
+                    .sorted(Comparator.comparing(entry -> entry.getValue().createdAt()))
+                    .toList();
+
+            for (Map.Entry<ConversionCacheKey, StoredArtifact> entry : oldestFirst) {
+                if (!isExpired(entry.getValue(), now) && sizeBytes.get() <= maxBytes) {
+                    break;
+                }
+                remove(entry.getKey(), entry.getValue());
+            }
+
+            if (indexRecords > Math.max(MIN_COMPACTION_RECORDS, index.size() * 2)) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("Could not compact the artifact index: {}", e.getMessage());
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        // Pending writes are finished so the index does not lose results that were already sent
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Artifact writes did not finish within {}, the results are dropped", SHUTDOWN_TIMEOUT);
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        if (indexLog != null) {
+            indexLog.close();
+        }
+    }
+
+    private void remove(ConversionCacheKey key, StoredArtifact artifact) {
+        indexLock.lock();
+        try {
+            if (!index.remove(key, artifact)) {
+                return;
+            }
+            append(deleteRecord(key));
+            release(artifact);
+        } catch (IOException e) {
+            log.warn("Could not record removal of stored conversion: {}", e.getMessage());
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void reference(StoredArtifact artifact) {
+        if (references.merge(artifact.contentHash(), 1, Integer::sum) == 1) {
+            sizeBytes.addAndGet(artifact.sizeBytes());
+        }
+    }
+
+    private void release(StoredArtifact artifact) {
+        // Identical outputs share one object, it goes once the last index entry pointing at it is removed
+        if (references.merge(artifact.contentHash(), -1, Integer::sum) > 0) {
+            return;
+        }
+        references.remove(artifact.contentHash());
+        sizeBytes.addAndGet(-artifact.sizeBytes());
+
+        Path object = objectPath(artifact.contentHash());
+        try {
+            Files.deleteIfExists(object);
+        } catch (IOException e) {
+            log.warn("Could not delete stored conversion {}: {}", object, e.getMessage());
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(objects);
+        Files.createDirectories(staging);
+
+        // Staged files never made it into the index, the write was interrupted
+        try (Stream<Path> files = Files.list(staging)) {
+            for (Path path : files.toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+
+        if (Files.exists(indexFile)) {
+            replay();
+        }
+
+        Instant now = Instant.now();
+        index.entrySet().removeIf(entry -> isExpired(entry.getValue(), now) || !isIntact(entry.getValue()));
+        index.values().forEach(this::reference);
+
+        try (Stream<Path> files = Files.walk(objects)) {
+            for (Path path : files.filter(Files::isRegularFile).toList()) {
+                if (!references.containsKey(path.getFileName().toString())) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+
+        compact();
+        log.info("Recovered {} stored conversions ({} bytes) from {}", index.size(), sizeBytes.get(), indexFile);
+    }
+
+    private void replay() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // A crash in the middle of an append leaves a torn last line, which is skipped like any malformed one
+                String[] fields = line.split("\t", -1);
+                try {
+                    if (fields[0].equals(PUT) && fields.length == 7 && fields[4].length() == 64) {
+                        index.put(key(fields), new StoredArtifact(fields[4], Long.parseLong(fields[5]),
+                                Instant.ofEpochMilli(Long.parseLong(fields[6]))));
+                    } else if (fields[0].equals(DELETE) && fields.length == 4) {
+                        index.remove(key(fields));
+                    }
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping malformed artifact index record: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        // The live entries are written to a new log that replaces the old one in a single rename
+        Path compacted = Files.createTempFile(staging, "index-", ".tmp");
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+            OutputStream outputStream = Channels.newOutputStream(channel);
+            for (Map.Entry<ConversionCacheKey, StoredArtifact> entry : index.entrySet()) {
+                outputStream.write(putRecord(entry.getKey(), entry.getValue()).getBytes(StandardCharsets.UTF_8));
+            }
+            channel.force(true);
+        }
+
+        if (indexLog != null) {
+            indexLog.close();
+        }
+        Files.move(compacted, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexLog = FileChannel.open(indexFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        indexRecords = index.size();
+    }
+
+    private void append(String record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            indexLog.write(buffer);
+        }
+        indexLog.force(false);
+        indexRecords++;
+    }
+
+    private String hashAndSync(Path staged) throws IOException {
+        MessageDigest digest = sha256();
+        try (FileChannel channel = FileChannel.open(staged, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            channel.force(true);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete staged conversion {}: {}", path, e.getMessage());
+        }
+    }
+
+    private boolean isIntact(StoredArtifact artifact) {
+        try {
+            return Files.size(objectPath(artifact.contentHash())) == artifact.sizeBytes();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(StoredArtifact artifact, Instant now) {
+        return artifact.createdAt().plus(ttl).isBefore(now);
+    }
+
+    private Path objectPath(String contentHash) {
+        return objects.resolve(contentHash.substring(0, 2)).resolve(contentHash.substring(2, 4)).resolve(contentHash);
+    }
+
+    private static String putRecord(ConversionCacheKey key, StoredArtifact artifact) {
+        return String.join("\t", PUT, key.inputHash(), key.targetFormat(), encode(key.options()),
+                artifact.contentHash(), Long.toString(artifact.sizeBytes()),
+                Long.toString(artifact.createdAt().toEpochMilli())) + "\n";
+    }
+
+    private static String deleteRecord(ConversionCacheKey key) {
+        return String.join("\t", DELETE, key.inputHash(), key.targetFormat(), encode(key.options())) + "\n";
+    }
+
+    private static ConversionCacheKey key(String[] fields) {
+        return new ConversionCacheKey(fields[1], fields[2],
+                new String(Base64.getUrlDecoder().decode(fields[3]), StandardCharsets.UTF_8));
+    }
+
+    private static String encode(String options) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(options.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
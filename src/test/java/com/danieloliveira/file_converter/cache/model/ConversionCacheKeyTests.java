@@ -0,0 +1,54 @@
+package com.danieloliveira.file_converter.cache.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversionCacheKeyTests {
+
+    private static final String INPUT_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Test
+    void etagWithoutOptionsIsInputAndFormat() {
+        assertThat(new ConversionCacheKey(INPUT_HASH, "PNG", "").etag()).isEqualTo("\"" + INPUT_HASH + "-png\"");
+    }
+
+    @Test
+    void etagHashesOptionsIntoAHeaderSafeSuffix() {
+        String etag = new ConversionCacheKey(INPUT_HASH, "JPEG", "w=100;h=50;q=0.8 \"quoted\"").etag();
+
+        assertThat(etag).matches("\"" + INPUT_HASH + "-jpeg-[0-9a-f]{16}\"");
+        assertThat(etag).isEqualTo(new ConversionCacheKey(INPUT_HASH, "JPEG", "w=100;h=50;q=0.8 \"quoted\"").etag());
+    }
+
+    @Test
+    void etagDiffersPerFormatAndOptions() {
+        String etag = new ConversionCacheKey(INPUT_HASH, "WEBP", "q=0.8").etag();
+
+        assertThat(etag).isNotEqualTo(new ConversionCacheKey(INPUT_HASH, "WEBP", "q=0.9").etag());
+        assertThat(etag).isNotEqualTo(new ConversionCacheKey(INPUT_HASH, "PNG", "q=0.8").etag());
+        assertThat(etag).isNotEqualTo(new ConversionCacheKey(INPUT_HASH.replace('9', '8'), "WEBP", "q=0.8").etag());
+    }
+
+    @Test
+    void matchesStrongWeakAndWildcardTags() {
+        ConversionCacheKey key = new ConversionCacheKey(INPUT_HASH, "PDF", "");
+        String etag = key.etag();
+
+        assertThat(key.matches(List.of(etag))).isTrue();
+        assertThat(key.matches(List.of(" W/" + etag + " "))).isTrue();
+        assertThat(key.matches(List.of("\"other\"", etag))).isTrue();
+        assertThat(key.matches(List.of("*"))).isTrue();
+    }
+
+    @Test
+    void doesNotMatchOtherTags() {
+        ConversionCacheKey key = new ConversionCacheKey(INPUT_HASH, "PDF", "");
+
+        assertThat(key.matches(List.of())).isFalse();
+        assertThat(key.matches(List.of("\"" + INPUT_HASH + "-txt\""))).isFalse();
+        assertThat(key.matches(List.of(key.etag().replace("\"", "")))).isFalse();
+    }
+}
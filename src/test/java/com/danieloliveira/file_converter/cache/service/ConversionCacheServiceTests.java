@@ -0,0 +1,137 @@
+package com.danieloliveira.file_converter.cache.service;
+
+import com.danieloliveira.file_converter.cache.model.CacheStats;
+import com.danieloliveira.file_converter.cache.model.ConversionCacheKey;
+import com.danieloliveira.file_converter.store.service.ArtifactStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversionCacheServiceTests {
+
+    @TempDir
+    Path directory;
+
+    private ArtifactStore store;
+    private ConversionCacheService cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Without the artifact store only the memory tier answers, so evicted entries become misses
+        store = new ArtifactStore(false, directory.resolve("store"), DataSize.ofMegabytes(1), Duration.ofDays(1), 4);
+        cache = new ConversionCacheService(true, DataSize.ofBytes(10), DataSize.ofBytes(6), store);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesOverTheMemoryLimit() throws IOException {
+        cache.put(key("a"), result("aaaa"));
+        cache.put(key("b"), result("bbbb"));
+        assertThat(cache.get(key("a"))).isPresent();
+
+        cache.put(key("c"), result("cccc"));
+
+        assertThat(cache.get(key("b"))).isEmpty();
+        assertThat(cache.get(key("a"))).isPresent();
+        assertThat(cache.get(key("c"))).isPresent();
+
+        CacheStats stats = cache.getStats();
+        assertThat(stats.evictions()).isEqualTo(1);
+        assertThat(stats.memoryEntries()).isEqualTo(2);
+        assertThat(stats.memorySizeBytes()).isEqualTo(8);
+    }
+
+    @Test
+    void replacingAnEntryKeepsTheSizeAccurate() throws IOException {
+        cache.put(key("a"), result("aaaa"));
+        cache.put(key("a"), result("aa"));
+        cache.put(key("b"), result("bbbbbb"));
+
+        assertThat(cache.getStats().memorySizeBytes()).isEqualTo(8);
+        assertThat(cache.getStats().evictions()).isZero();
+        assertThat(read(cache.get(key("a")))).isEqualTo("aa");
+    }
+
+    @Test
+    void keepsEntriesOverTheEntryLimitOutOfMemory() throws IOException {
+        cache.put(key("a"), result("aaaa"));
+        cache.put(key("big"), result("0123456789"));
+
+        assertThat(cache.contains(key("big"))).isFalse();
+        assertThat(cache.contains(key("a"))).isTrue();
+        assertThat(cache.getStats().evictions()).isZero();
+    }
+
+    @Test
+    void countsHitsAndMisses() throws IOException {
+        cache.put(key("a"), result("aaaa"));
+        cache.get(key("a"));
+        cache.get(key("missing"));
+
+        assertThat(cache.getStats().memoryHits()).isEqualTo(1);
+        assertThat(cache.getStats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledCacheKeepsNothingInMemory() throws IOException {
+        ConversionCacheService disabled = new ConversionCacheService(false, DataSize.ofBytes(10), DataSize.ofBytes(6), store);
+        disabled.put(key("a"), result("aaaa"));
+
+        assertThat(disabled.get(key("a"))).isEmpty();
+        assertThat(disabled.contains(key("a"))).isFalse();
+        assertThat(disabled.getStats().memoryEntries()).isZero();
+    }
+
+    @Test
+    void disabledCacheStillUsesTheArtifactStore() throws Exception {
+        ArtifactStore enabledStore = new ArtifactStore(true, directory.resolve("enabled-store"), DataSize.ofMegabytes(1),
+                Duration.ofDays(1), 4);
+        try {
+            ConversionCacheService disabled = new ConversionCacheService(false, DataSize.ofBytes(10), DataSize.ofBytes(6),
+                    enabledStore);
+            disabled.put(key("a"), result("aaaa"));
+
+            // Store writes happen on the writer thread
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!disabled.contains(key("a")) && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertThat(read(disabled.get(key("a")))).isEqualTo("aaaa");
+            assertThat(disabled.getStats().diskHits()).isEqualTo(1);
+            assertThat(disabled.getStats().memoryEntries()).isZero();
+        } finally {
+            enabledStore.close();
+        }
+    }
+
+    private static ConversionCacheKey key(String input) {
+        return new ConversionCacheKey(input, "PNG", "");
+    }
+
+    private Path result(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(directory, "result", ".bin"), content);
+    }
+
+    private static String read(Optional<Resource> resource) throws IOException {
+        assertThat(resource).isPresent();
+        return resource.get().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+package com.danieloliveira.file_converter.cluster.service;
+
+import com.danieloliveira.file_converter.cluster.model.NodeLoad;
+import com.danieloliveira.file_converter.concurrency.AdmissionController;
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterCoordinatorTests {
+
+    private static final ConsistentHashRing RING = ConsistentHashRing.of(List.of("local", "peer"), 64);
+
+    private final InMemoryNodeRegistry registry = new InMemoryNodeRegistry();
+    private final AdmissionController admission = new AdmissionController(
+            new ConversionMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry()),
+            1, 4, Duration.ofSeconds(1), DataSize.ofMegabytes(1),
+            1, 4, Duration.ofSeconds(1),
+            1, 4, Duration.ofSeconds(1),
+            1, 4, Duration.ofSeconds(1));
+    private final ClusterCoordinator coordinator = new ClusterCoordinator(true, "local", "http://local:8080",
+            Duration.ofSeconds(10), 1.0, 0.25, registry,
+            new OfficeProcessPool(port -> null, 1, 1, 2002, 0, 0, Duration.ofSeconds(1), Duration.ofMinutes(1), new File(".")),
+            admission);
+
+    @Test
+    void keepsOwnedInputsWhileThereIsRoom() {
+        joinPeer(0.0);
+
+        assertThat(coordinator.selectPeer(ConversionClass.IMAGE, inputOwnedBy("local"))).isEmpty();
+    }
+
+    @Test
+    void offloadsOwnedInputsWhenSaturated() throws Exception {
+        joinPeer(0.0);
+
+        try (AdmissionController.Permit permit = admission.admit(ConversionClass.IMAGE)) {
+            assertThat(coordinator.shouldOffload(ConversionClass.IMAGE)).isTrue();
+            assertThat(coordinator.selectPeer(ConversionClass.IMAGE, inputOwnedBy("local")))
+                    .hasValueSatisfying(peer -> assertThat(peer.nodeId()).isEqualTo("peer"));
+            assertThat(coordinator.selectPeer(ConversionClass.IMAGE, inputOwnedBy("peer")))
+                    .hasValueSatisfying(peer -> assertThat(peer.nodeId()).isEqualTo("peer"));
+        }
+    }
+
+    @Test
+    void keepsOwnedInputsWhenEveryPeerIsSaturatedToo() throws Exception {
+        joinPeer(1.0);
+
+        try (AdmissionController.Permit permit = admission.admit(ConversionClass.IMAGE)) {
+            assertThat(coordinator.selectPeer(ConversionClass.IMAGE, inputOwnedBy("local"))).isEmpty();
+        }
+    }
+
+    private void joinPeer(double imageLoad) {
+        registry.publish(new NodeLoad("peer", "http://peer:8080", 0, 0.0, imageLoad, Instant.now()));
+        coordinator.heartbeat();
+    }
+
+    private static String inputOwnedBy(String nodeId) {
+        return IntStream.range(0, 1000)
+                .mapToObj(i -> "input-" + i)
+                .filter(input -> RING.walk(input).get(0).equals(nodeId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
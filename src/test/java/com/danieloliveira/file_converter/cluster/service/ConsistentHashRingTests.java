@@ -0,0 +1,88 @@
+package com.danieloliveira.file_converter.cluster.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTests {
+
+    private static final int VIRTUAL_NODES = 64;
+    private static final int KEYS = 10_000;
+
+    @Test
+    void walkVisitsEveryNodeOnceInAStableOrder() {
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing reordered = ConsistentHashRing.of(List.of("c", "a", "b"), VIRTUAL_NODES);
+
+        for (String key : keys(100)) {
+            List<String> walk = ring.walk(key);
+            assertThat(walk).containsExactlyInAnyOrder("a", "b", "c");
+            assertThat(reordered.walk(key)).isEqualTo(walk);
+        }
+    }
+
+    @Test
+    void addingANodeOnlyMovesKeysToThatNode() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        ConsistentHashRing after = ConsistentHashRing.of(List.of("a", "b", "c", "d", "e"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (String key : keys(KEYS)) {
+            String owner = after.walk(key).get(0);
+            if (!owner.equals(before.walk(key).get(0))) {
+                assertThat(owner).isEqualTo("e");
+                moved++;
+            }
+        }
+
+        // Roughly a fifth of the keys belong to the new node, nowhere near a full reshuffle
+        assertThat(moved).isBetween(KEYS / 10, KEYS * 3 / 10);
+    }
+
+    @Test
+    void removingANodeHandsItsKeysToTheNextNodeOfTheWalk() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        ConsistentHashRing after = ConsistentHashRing.of(List.of("a", "b", "d"), VIRTUAL_NODES);
+
+        for (String key : keys(KEYS)) {
+            List<String> walk = before.walk(key);
+            String expected = walk.get(0).equals("c") ? walk.get(1) : walk.get(0);
+            assertThat(after.walk(key).get(0)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void spreadsKeysAcrossNodes() {
+        ConsistentHashRing ring = ConsistentHashRing.of(Set.of("a", "b", "c", "d"), VIRTUAL_NODES);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (String key : keys(KEYS)) {
+            owned.merge(ring.walk(key).get(0), 1, Integer::sum);
+        }
+
+        assertThat(owned).hasSize(4);
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 8, KEYS * 3 / 8));
+    }
+
+    @Test
+    void singleNodeOwnsEverything() {
+        ConsistentHashRing ring = ConsistentHashRing.of(Set.of("local"), VIRTUAL_NODES);
+
+        assertThat(ring.walk("any")).containsExactly("local");
+        assertThat(ring.nodeIds()).containsExactly("local");
+    }
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add("input-" + i);
+        }
+        return keys;
+    }
+}
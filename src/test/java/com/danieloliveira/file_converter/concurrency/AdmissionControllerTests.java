@@ -0,0 +1,135 @@
+package com.danieloliveira.file_converter.concurrency;
+
+import com.danieloliveira.file_converter.concurrency.exceptions.ConversionCapacityExceededException;
+import com.danieloliveira.file_converter.concurrency.exceptions.TooManyConversionsException;
+import com.danieloliveira.file_converter.concurrency.model.AdmissionStats;
+import com.danieloliveira.file_converter.concurrency.model.ConversionClass;
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControllerTests {
+
+    @Test
+    void rejectsWhenTheQueueIsFull() throws Exception {
+        AdmissionController admission = admission(1, 0, Duration.ofSeconds(5), DataSize.ofMegabytes(1));
+
+        try (AdmissionController.Permit permit = admission.admit(ConversionClass.PDF_TEXT)) {
+            assertThatThrownBy(() -> admission.admit(ConversionClass.PDF_TEXT))
+                    .isInstanceOf(TooManyConversionsException.class)
+                    .satisfies(e -> assertThat(((TooManyConversionsException) e).getRetryAfter())
+                            .isGreaterThanOrEqualTo(Duration.ofSeconds(1)));
+        }
+
+        AdmissionStats stats = admission.getStats(ConversionClass.PDF_TEXT);
+        assertThat(stats.rejectedQueueFull()).isEqualTo(1);
+        assertThat(stats.admittedImmediately()).isEqualTo(1);
+        assertThat(stats.inFlight()).isZero();
+        assertThat(stats.waiting()).isZero();
+    }
+
+    @Test
+    void rejectsWhenNoCapacityFreesUpInTime() throws Exception {
+        AdmissionController admission = admission(1, 1, Duration.ofMillis(50), DataSize.ofMegabytes(1));
+
+        try (AdmissionController.Permit permit = admission.admit(ConversionClass.OFFICE)) {
+            assertThatThrownBy(() -> admission.admit(ConversionClass.OFFICE))
+                    .isInstanceOf(ConversionCapacityExceededException.class);
+        }
+
+        AdmissionStats stats = admission.getStats(ConversionClass.OFFICE);
+        assertThat(stats.rejectedTimeout()).isEqualTo(1);
+        assertThat(stats.waiting()).isZero();
+        assertThat(stats.inFlight()).isZero();
+    }
+
+    @Test
+    void admitsQueuedConversionOnceAPermitIsReleased() throws Exception {
+        AdmissionController admission = admission(1, 1, Duration.ofSeconds(10), DataSize.ofMegabytes(1));
+        AdmissionController.Permit first = admission.admit(ConversionClass.IMAGE);
+
+        CompletableFuture<AdmissionController.Permit> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return admission.admit(ConversionClass.IMAGE);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        awaitWaiting(admission, ConversionClass.IMAGE, 1);
+
+        first.close();
+        queued.get(5, TimeUnit.SECONDS).close();
+
+        AdmissionStats stats = admission.getStats(ConversionClass.IMAGE);
+        assertThat(stats.admittedImmediately()).isEqualTo(1);
+        assertThat(stats.admittedAfterQueueing()).isEqualTo(1);
+        assertThat(stats.inFlight()).isZero();
+    }
+
+    @Test
+    void imagesWaitForTheMemoryBudget() throws Exception {
+        AdmissionController admission = admission(4, 4, Duration.ofMillis(50), DataSize.ofKilobytes(4));
+
+        try (AdmissionController.Permit permit = admission.admitImage(3 * 1024)) {
+            assertThat(admission.getStats(ConversionClass.IMAGE).reservedMemoryBytes()).isEqualTo(3 * 1024);
+            assertThatThrownBy(() -> admission.admitImage(2 * 1024))
+                    .isInstanceOf(ConversionCapacityExceededException.class);
+            admission.admitImage(1024).close();
+        }
+
+        assertThat(admission.getStats(ConversionClass.IMAGE).reservedMemoryBytes()).isZero();
+        assertThat(admission.getStats(ConversionClass.IMAGE).inFlight()).isZero();
+    }
+
+    @Test
+    void imagesLargerThanTheBudgetRunAlone() throws Exception {
+        AdmissionController admission = admission(4, 4, Duration.ofMillis(50), DataSize.ofKilobytes(4));
+
+        try (AdmissionController.Permit permit = admission.admitImage(DataSize.ofMegabytes(1).toBytes())) {
+            assertThat(admission.getStats(ConversionClass.IMAGE).reservedMemoryBytes()).isEqualTo(4 * 1024);
+            assertThatThrownBy(() -> admission.admitImage(1))
+                    .isInstanceOf(ConversionCapacityExceededException.class);
+        }
+    }
+
+    @Test
+    void closingAPermitTwiceReleasesItOnce() throws Exception {
+        AdmissionController admission = admission(2, 0, Duration.ofMillis(50), DataSize.ofMegabytes(1));
+
+        AdmissionController.Permit first = admission.admit(ConversionClass.OFFICE_TEXT);
+        AdmissionController.Permit second = admission.admit(ConversionClass.OFFICE_TEXT);
+        first.close();
+        first.close();
+
+        assertThat(admission.getStats(ConversionClass.OFFICE_TEXT).inFlight()).isEqualTo(1);
+        second.close();
+        assertThat(admission.getStats(ConversionClass.OFFICE_TEXT).inFlight()).isZero();
+    }
+
+    private static AdmissionController admission(int maxConcurrent, int maxQueued, Duration maxWait, DataSize imageMemoryBudget) {
+        ConversionMetrics metrics = new ConversionMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry());
+        return new AdmissionController(metrics,
+                maxConcurrent, maxQueued, maxWait, imageMemoryBudget,
+                maxConcurrent, maxQueued, maxWait,
+                maxConcurrent, maxQueued, maxWait,
+                maxConcurrent, maxQueued, maxWait);
+    }
+
+    private static void awaitWaiting(AdmissionController admission, ConversionClass conversionClass, int waiting)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admission.getStats(conversionClass).waiting() < waiting && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(admission.getStats(conversionClass).waiting()).isEqualTo(waiting);
+    }
+}
@@ -0,0 +1,81 @@
+package com.danieloliveira.file_converter.concurrency;
+
+import com.danieloliveira.file_converter.metrics.ConversionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConversionThreadsTests {
+
+    private final ConversionThreads threads = new ConversionThreads(
+            new ConversionMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry()), false, 2);
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdown();
+    }
+
+    @Test
+    void runsTasksConcurrentlyOnCpuWorkers() throws IOException {
+        // Each task waits for the other, so they only finish when both run at once
+        CountDownLatch started = new CountDownLatch(2);
+        Set<String> workers = ConcurrentHashMap.newKeySet();
+        Observation.CheckedRunnable<IOException> task = () -> {
+            workers.add(Thread.currentThread().getName());
+            started.countDown();
+            await(started);
+            assertThat(threads.compute(() -> Thread.currentThread().getName())).isIn(workers);
+        };
+
+        threads.computeAll(List.of(task, task));
+
+        assertThat(workers).hasSize(2).allSatisfy(name -> assertThat(name).startsWith("conversion-cpu-"));
+    }
+
+    @Test
+    void waitsForEveryTaskBeforeFailing() {
+        CountDownLatch finished = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> threads.computeAll(List.of(
+                () -> {
+                    throw new IOException("encode failed");
+                },
+                () -> {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                    finished.countDown();
+                })))
+                .isInstanceOf(IOException.class)
+                .hasMessage("encode failed");
+        assertThat(finished.getCount()).isZero();
+    }
+
+    @Test
+    void runsASingleTaskOnTheCallingThread() throws IOException {
+        Set<String> workers = ConcurrentHashMap.newKeySet();
+
+        threads.computeAll(List.of(() -> workers.add(Thread.currentThread().getName())));
+
+        assertThat(workers).containsExactly(Thread.currentThread().getName());
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
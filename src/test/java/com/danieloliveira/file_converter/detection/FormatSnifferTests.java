@@ -0,0 +1,163 @@
+package com.danieloliveira.file_converter.detection;
+
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import com.danieloliveira.file_converter.image.model.ImageFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormatSnifferTests {
+
+    private static final byte[] CFB = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+
+    private final FormatSniffer sniffer = new FormatSniffer();
+
+    @Test
+    void detectsImagesByMagic() throws IOException {
+        assertThat(sniffer.detectImage(file(0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13)))
+                .contains(ImageFormat.PNG);
+        assertThat(sniffer.detectImage(file(0xFF, 0xD8, 0xFF, 0xE0))).contains(ImageFormat.JPEG);
+        assertThat(sniffer.detectImage(file('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P')))
+                .contains(ImageFormat.WEBP);
+    }
+
+    @Test
+    void rejectsUnknownImages() throws IOException {
+        assertThat(sniffer.detectImage(file('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'A', 'V', 'E'))).isEmpty();
+        assertThat(sniffer.detectImage(file('G', 'I', 'F', '8', '9', 'a'))).isEmpty();
+        assertThat(sniffer.detectImage(file())).isEmpty();
+    }
+
+    @Test
+    void detectsPdfAfterLeadingBytes() throws IOException {
+        assertThat(sniffer.detectDocument(file("%PDF-1.7\n"))).contains(DocFormat.PDF);
+        assertThat(sniffer.detectDocument(file("\uFEFF\r\n%PDF-1.4\n"))).contains(DocFormat.PDF);
+    }
+
+    @Test
+    void detectsOfficeOpenXmlFromLocalHeaders() throws IOException {
+        assertThat(sniffer.detectDocument(storedZip("[Content_Types].xml", "word/document.xml"))).contains(DocFormat.DOCX);
+        assertThat(sniffer.detectDocument(storedZip("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml")))
+                .contains(DocFormat.XLSX);
+        assertThat(sniffer.detectDocument(storedZip("ppt/presentation.xml"))).contains(DocFormat.PPTX);
+    }
+
+    @Test
+    void detectsOfficeOpenXmlFromCentralDirectoryWhenSizesFollowTheData() throws IOException {
+        // Deflated entries written by ZipOutputStream carry their sizes in a data descriptor
+        assertThat(sniffer.detectDocument(streamedZip("[Content_Types].xml", "word/document.xml")))
+                .contains(DocFormat.DOCX);
+        assertThat(sniffer.detectDocument(streamedZip("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml")))
+                .contains(DocFormat.XLSX);
+    }
+
+    @Test
+    void rejectsZipsWithoutOfficeParts() throws IOException {
+        assertThat(sniffer.detectDocument(storedZip("readme.txt", "data/values.xml"))).isEmpty();
+        assertThat(sniffer.detectDocument(streamedZip("readme.txt"))).isEmpty();
+    }
+
+    @Test
+    void detectsCompoundFilesByDirectoryEntry() throws IOException {
+        assertThat(sniffer.detectDocument(compoundFile(9, 0, "WordDocument"))).contains(DocFormat.DOC);
+        assertThat(sniffer.detectDocument(compoundFile(9, 0, "Workbook"))).contains(DocFormat.XLS);
+        assertThat(sniffer.detectDocument(compoundFile(9, 0, "Book"))).contains(DocFormat.XLS);
+        assertThat(sniffer.detectDocument(compoundFile(9, 0, "SummaryInformation", "PowerPoint Document")))
+                .contains(DocFormat.PPT);
+    }
+
+    @Test
+    void detectsCompoundFilesWithLargeSectorsOrDirectoryPastTheHeader() throws IOException {
+        assertThat(sniffer.detectDocument(compoundFile(12, 0, "WordDocument"))).contains(DocFormat.DOC);
+        assertThat(sniffer.detectDocument(compoundFile(9, 20, "Workbook"))).contains(DocFormat.XLS);
+    }
+
+    @Test
+    void rejectsCompoundFilesWithoutKnownStreams() throws IOException {
+        assertThat(sniffer.detectDocument(compoundFile(9, 0, "Contents"))).isEmpty();
+        assertThat(sniffer.detectDocument(compoundFile(10, 0, "WordDocument"))).isEmpty();
+    }
+
+    @Test
+    void detectsTextAndRejectsBinary() throws IOException {
+        assertThat(sniffer.detectDocument(file("name,value\r\nfirst,1\tsecond\f\n"))).contains(DocFormat.TXT);
+        assertThat(sniffer.detectDocument(file("Olá, ünïcode"))).contains(DocFormat.TXT);
+        assertThat(sniffer.detectDocument(file('t', 'e', 'x', 't', 0, 1, 2))).isEmpty();
+        assertThat(sniffer.detectDocument(file())).isEmpty();
+    }
+
+    private static MockMultipartFile file(int... bytes) {
+        byte[] content = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            content[i] = (byte) bytes[i];
+        }
+        return new MockMultipartFile("file", content);
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile storedZip(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                byte[] content = ("<" + name + "/>").getBytes(StandardCharsets.UTF_8);
+                CRC32 crc = new CRC32();
+                crc.update(content);
+
+                ZipEntry entry = new ZipEntry(name);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(content.length);
+                entry.setCrc(crc.getValue());
+                zip.putNextEntry(entry);
+                zip.write(content);
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("file", bytes.toByteArray());
+    }
+
+    private static MockMultipartFile streamedZip(String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(("<" + name + "/>").getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("file", bytes.toByteArray());
+    }
+
+    private static MockMultipartFile compoundFile(int sectorShift, int directorySector, String... streams) {
+        int sectorSize = 1 << sectorShift;
+        ByteBuffer buffer = ByteBuffer.allocate((directorySector + 2) * sectorSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(CFB);
+        buffer.putShort(0x1E, (short) sectorShift);
+        buffer.putInt(0x30, directorySector);
+        // No FAT sectors, so the directory chain ends after its first sector
+        buffer.putInt(0x4C, -1);
+
+        int offset = (directorySector + 1) * sectorSize;
+        String[] names = new String[streams.length + 1];
+        names[0] = "Root Entry";
+        System.arraycopy(streams, 0, names, 1, streams.length);
+        for (int i = 0; i < names.length; i++) {
+            int entry = offset + i * 128;
+            buffer.put(entry, names[i].getBytes(StandardCharsets.UTF_16LE));
+            buffer.putShort(entry + 0x40, (short) ((names[i].length() + 1) * 2));
+        }
+        return new MockMultipartFile("file", buffer.array());
+    }
+}
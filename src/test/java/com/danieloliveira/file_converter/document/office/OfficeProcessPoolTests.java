@@ -0,0 +1,98 @@
+package com.danieloliveira.file_converter.document.office;
+
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfficeProcessPoolTests {
+
+    private static final Duration START_UP = Duration.ofMillis(50);
+
+    @TempDir
+    File workingDir;
+
+    private final List<String> startUps = new CopyOnWriteArrayList<>();
+    private final List<Duration> readies = new CopyOnWriteArrayList<>();
+    private OfficeProcessPool pool;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.stop();
+    }
+
+    @Test
+    void timesEachProcessStartAndThePoolReadinessOnce() throws Exception {
+        pool = pool(2, 0);
+        pool.start();
+
+        assertThat(startUps).containsExactly("start", "start");
+        assertThat(readies).singleElement().satisfies(ready -> assertThat(ready).isGreaterThanOrEqualTo(START_UP));
+        assertThat(pool.isRunning()).isTrue();
+    }
+
+    @Test
+    void timesRestartsSeparatelyFromStarts() throws Exception {
+        pool = pool(1, 1);
+        pool.start();
+
+        pool.execute(context -> {
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (startUps.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertThat(startUps).containsExactly("start", "restart");
+        assertThat(readies).hasSize(1);
+    }
+
+    private OfficeProcessPool pool(int processes, int maxTasksPerProcess) {
+        OfficeProcessPool created = new OfficeProcessPool(port -> new SlowStartingOfficeManager(), processes, processes,
+                2002, maxTasksPerProcess, 3, Duration.ofSeconds(5), Duration.ofMinutes(5), workingDir);
+        created.setStartUpListener((trigger, duration) -> {
+            assertThat(duration).isGreaterThanOrEqualTo(START_UP);
+            startUps.add(trigger);
+        });
+        created.setReadyListener(readies::add);
+        return created;
+    }
+
+    private static class SlowStartingOfficeManager implements OfficeManager {
+
+        private volatile boolean running;
+
+        @Override
+        public void execute(OfficeTask task) {
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public void start() {
+            try {
+                Thread.sleep(START_UP.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.danieloliveira.file_converter.document.service.strategy;
+
+import com.danieloliveira.file_converter.document.model.DocFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfficeOpenXmlTextStrategyTests {
+
+    private static final String WORD = "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"";
+    private static final String SHEET = "xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"";
+    private static final String SLIDE = "xmlns:p=\"http://schemas.openxmlformats.org/presentationml/2006/main\" "
+            + "xmlns:a=\"http://schemas.openxmlformats.org/drawingml/2006/main\"";
+    private static final String RELATIONSHIPS = "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"";
+    private static final String MARKUP_COMPATIBILITY = "xmlns:mc=\"http://schemas.openxmlformats.org/markup-compatibility/2006\"";
+
+    private final OfficeOpenXmlTextStrategy strategy = new OfficeOpenXmlTextStrategy(DataSize.ofMegabytes(1));
+
+    @Test
+    void extractsDocumentParagraphsTabsAndBreaks() throws IOException {
+        Map<String, String> parts = new LinkedHashMap<>();
+        parts.put("_rels/.rels", relationships("rId1", "officeDocument", "word/document.xml"));
+        parts.put("word/document.xml", "<w:document " + WORD + "><w:body>"
+                + "<w:p><w:pPr><w:tabs><w:tab w:val=\"left\" w:pos=\"720\"/></w:tabs></w:pPr>"
+                + "<w:r><w:t>Hello</w:t></w:r><w:r><w:tab/><w:t xml:space=\"preserve\"> world &amp; co</w:t></w:r></w:p>"
+                + "<w:p><w:r><w:t>Line</w:t><w:br/><w:t>two</w:t></w:r><w:r><w:delText>deleted</w:delText></w:r></w:p>"
+                + "</w:body></w:document>");
+
+        assertThat(convert(parts, DocFormat.DOCX, DocFormat.TXT)).isEqualTo("Hello\t world & co\nLine\ntwo\n");
+    }
+
+    @Test
+    void readsOnlyTheFirstAlternateContentBranch() throws IOException {
+        Map<String, String> parts = new LinkedHashMap<>();
+        parts.put("_rels/.rels", relationships("rId1", "officeDocument", "word/document.xml"));
+        parts.put("word/document.xml", "<w:document " + WORD + " " + MARKUP_COMPATIBILITY + "><w:body>"
+                + "<w:p><w:r><mc:AlternateContent><mc:Choice Requires=\"wps\"><w:t>Text box</w:t>"
+                + "<mc:AlternateContent><mc:Choice><w:t> nested</w:t></mc:Choice><mc:Fallback><w:t>nested fallback</w:t></mc:Fallback></mc:AlternateContent>"
+                + "</mc:Choice><mc:Fallback><w:t>Text box fallback</w:t></mc:Fallback></mc:AlternateContent></w:r></w:p>"
+                + "<w:p><w:r><w:t>After</w:t></w:r></w:p>"
+                + "</w:body></w:document>");
+
+        assertThat(convert(parts, DocFormat.DOCX, DocFormat.TXT)).isEqualTo("Text box nested\nAfter\n");
+    }
+
+    @Test
+    void extractsSheetsWithSharedStringsAndEmptyRows() throws IOException {
+        Map<String, String> parts = workbook();
+
+        assertThat(convert(parts, DocFormat.XLSX, DocFormat.TXT)).isEqualTo("""
+                First
+                Name\t\t42.5
+                \tRich "text", here\tTRUE\tinline\t7
+
+                Second
+                1
+                """);
+    }
+
+    @Test
+    void writesCsvForTheFirstSheetKeepingEmptyRows() throws IOException {
+        Map<String, String> parts = workbook();
+
+        assertThat(convert(parts, DocFormat.XLSX, DocFormat.CSV)).isEqualTo("""
+
+
+                Name,,42.5
+
+                ,"Rich ""text"", here",TRUE,inline,7
+                """);
+    }
+
+    @Test
+    void extractsSlidesInPresentationOrder() throws IOException {
+        Map<String, String> parts = new LinkedHashMap<>();
+        parts.put("_rels/.rels", relationships("rId1", "officeDocument", "ppt/presentation.xml"));
+        parts.put("ppt/presentation.xml", "<p:presentation " + SLIDE + " " + RELATIONSHIPS + "><p:sldIdLst>"
+                + "<p:sldId id=\"257\" r:id=\"rId3\"/><p:sldId id=\"256\" r:id=\"rId2\"/></p:sldIdLst></p:presentation>");
+        parts.put("ppt/_rels/presentation.xml.rels", relationships(
+                "rId2", "slide", "slides/slide1.xml",
+                "rId3", "slide", "slides/slide2.xml"));
+        parts.put("ppt/slides/slide1.xml", "<p:sld " + SLIDE + "><p:cSld><p:spTree><p:sp><p:txBody>"
+                + "<a:p><a:r><a:t>Slide one</a:t></a:r><a:br/><a:r><a:t>second line</a:t></a:r></a:p>"
+                + "</p:txBody></p:sp></p:spTree></p:cSld></p:sld>");
+        parts.put("ppt/slides/slide2.xml", "<p:sld " + SLIDE + "><p:cSld><p:spTree><p:sp><p:txBody>"
+                + "<a:p><a:r><a:t>Slide two</a:t></a:r></a:p>"
+                + "</p:txBody></p:sp></p:spTree></p:cSld></p:sld>");
+
+        assertThat(convert(parts, DocFormat.PPTX, DocFormat.TXT)).isEqualTo("Slide two\n\nSlide one\nsecond line\n");
+    }
+
+    private static Map<String, String> workbook() {
+        Map<String, String> parts = new LinkedHashMap<>();
+        parts.put("_rels/.rels", relationships("rId1", "officeDocument", "xl/workbook.xml"));
+        parts.put("xl/workbook.xml", "<workbook " + SHEET + " " + RELATIONSHIPS + "><sheets>"
+                + "<sheet name=\"First\" sheetId=\"1\" r:id=\"rId1\"/><sheet name=\"Second\" sheetId=\"2\" r:id=\"rId2\"/>"
+                + "</sheets></workbook>");
+        parts.put("xl/_rels/workbook.xml.rels", relationships(
+                "rId1", "worksheet", "worksheets/sheet1.xml",
+                "rId2", "worksheet", "/xl/worksheets/sheet2.xml",
+                "rId3", "sharedStrings", "sharedStrings.xml"));
+        parts.put("xl/sharedStrings.xml", "<sst " + SHEET + "><si><t>Name</t></si>"
+                + "<si><r><t>Rich </t></r><r><t>\"text\", here</t></r><rPh><t>phonetic</t></rPh></si></sst>");
+        parts.put("xl/worksheets/sheet1.xml", "<worksheet " + SHEET + "><sheetData>"
+                + "<row r=\"3\"><c r=\"A3\" t=\"s\"><v>0</v></c><c r=\"C3\"><v>42.5</v></c></row>"
+                + "<row r=\"5\"><c r=\"B5\" t=\"s\"><v>1</v></c><c r=\"C5\" t=\"b\"><v>1</v></c>"
+                + "<c r=\"D5\" t=\"inlineStr\"><is><t>inline</t></is></c><c r=\"E5\"><f>SUM(C3)</f><v>7</v></c></row>"
+                + "</sheetData></worksheet>");
+        parts.put("xl/worksheets/sheet2.xml", "<worksheet " + SHEET + "><sheetData>"
+                + "<row r=\"1\"><c r=\"A1\"><v>1</v></c></row></sheetData></worksheet>");
+        return parts;
+    }
+
+    private static String relationships(String... idTypeTarget) {
+        StringBuilder xml = new StringBuilder(
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 0; i < idTypeTarget.length; i += 3) {
+            xml.append("<Relationship Id=\"").append(idTypeTarget[i])
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/")
+                    .append(idTypeTarget[i + 1]).append("\" Target=\"").append(idTypeTarget[i + 2]).append("\"/>");
+        }
+        return xml.append("</Relationships>").toString();
+    }
+
+    private String convert(Map<String, String> parts, DocFormat sourceFormat, DocFormat targetFormat) throws IOException {
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipped)) {
+            for (Map.Entry<String, String> part : parts.entrySet()) {
+                zip.putNextEntry(new ZipEntry(part.getKey()));
+                zip.write(part.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        strategy.convert(new MockMultipartFile("file", zipped.toByteArray()), sourceFormat, targetFormat, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,167 @@
+package com.danieloliveira.file_converter.image.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AlphaFlattenerTests {
+
+    private static final String BACKGROUND = "#336699";
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+
+    private final AlphaFlattener flattener = new AlphaFlattener(BACKGROUND);
+
+    @Test
+    void flattensPackedArgbInPlaceLikeGraphics2D() {
+        assertInPlaceMatchesGraphics2D(() -> image(BufferedImage.TYPE_INT_ARGB));
+    }
+
+    @Test
+    void flattensPremultipliedArgbInPlaceLikeGraphics2D() {
+        assertInPlaceMatchesGraphics2D(() -> image(BufferedImage.TYPE_INT_ARGB_PRE));
+    }
+
+    @Test
+    void flattensAbgrBytesInPlaceLikeGraphics2D() {
+        assertInPlaceMatchesGraphics2D(() -> image(BufferedImage.TYPE_4BYTE_ABGR));
+    }
+
+    @Test
+    void flattensReaderRgbaBytesInPlaceLikeGraphics2D() {
+        // The layout PNG and WEBP readers decode to, reported as TYPE_CUSTOM
+        assertInPlaceMatchesGraphics2D(() -> {
+            ComponentColorModel colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB),
+                    true, false, Transparency.TRANSLUCENT, DataBuffer.TYPE_BYTE);
+            BufferedImage image = new BufferedImage(colorModel, Raster.createInterleavedRaster(DataBuffer.TYPE_BYTE,
+                    WIDTH, HEIGHT, WIDTH * 4, 4, new int[]{0, 1, 2, 3}, null), false, null);
+            return fill(image);
+        });
+    }
+
+    @Test
+    void flattensSubImagesThroughACopy() {
+        BufferedImage image = image(BufferedImage.TYPE_INT_ARGB);
+        BufferedImage subImage = image.getSubimage(3, 2, 20, 15);
+        int[] before = image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+
+        BufferedImage flattened = flattener.flattenInPlace(subImage);
+
+        assertThat(image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH)).isEqualTo(before);
+        assertMatches(flattened, drawOnBackground(subImage));
+    }
+
+    @Test
+    void flattensIndexedAndGenericLayoutsLikeGraphics2D() {
+        byte[] red = {0, (byte) 255, 10, (byte) 200};
+        byte[] green = {0, 0, (byte) 128, 50};
+        byte[] blue = {0, (byte) 255, 40, 90};
+        byte[] alpha = {0, (byte) 255, (byte) 128, 30};
+        BufferedImage indexed = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_INDEXED,
+                new IndexColorModel(2, 4, red, green, blue, alpha));
+        Random random = new Random(7);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                indexed.getRaster().setSample(x, y, 0, random.nextInt(4));
+            }
+        }
+
+        assertMatches(flattener.flatten(indexed), drawOnBackground(indexed));
+        assertMatches(flattener.flatten(image(BufferedImage.TYPE_INT_ARGB)), drawOnBackground(image(BufferedImage.TYPE_INT_ARGB)));
+    }
+
+    @Test
+    void inPlaceAndCopyingFlattensAgree() {
+        for (int type : new int[]{BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_4BYTE_ABGR}) {
+            BufferedImage copied = flattener.flatten(image(type));
+            BufferedImage inPlace = flattener.flattenInPlace(image(type));
+
+            assertThat(inPlace.getColorModel().hasAlpha()).isFalse();
+            assertThat(inPlace.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH))
+                    .as("type %d", type)
+                    .isEqualTo(copied.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+        }
+    }
+
+    @Test
+    void returnsOpaqueImagesUnchanged() {
+        BufferedImage opaque = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+        assertThat(flattener.flatten(opaque)).isSameAs(opaque);
+        assertThat(flattener.flattenInPlace(opaque)).isSameAs(opaque);
+    }
+
+    private void assertInPlaceMatchesGraphics2D(Supplier<BufferedImage> images) {
+        BufferedImage expected = drawOnBackground(images.get());
+        BufferedImage image = images.get();
+
+        BufferedImage flattened = flattener.flattenInPlace(image);
+
+        assertThat(flattened.getRaster().getDataBuffer()).isSameAs(image.getRaster().getDataBuffer());
+        assertThat(flattened.getColorModel().hasAlpha()).isFalse();
+        assertMatches(flattened, expected);
+    }
+
+    private static void assertMatches(BufferedImage actual, BufferedImage expected) {
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int actualRgb = actual.getRGB(x, y);
+                int expectedRgb = expected.getRGB(x, y);
+                // Graphics2D rounds its blending tables slightly differently, one step per channel is expected
+                for (int shift = 0; shift <= 16; shift += 8) {
+                    assertThat((actualRgb >> shift) & 0xFF)
+                            .as("pixel %d,%d", x, y)
+                            .isCloseTo((expectedRgb >> shift) & 0xFF, within(1));
+                }
+            }
+        }
+    }
+
+    private static BufferedImage drawOnBackground(BufferedImage image) {
+        BufferedImage expected = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = expected.createGraphics();
+        try {
+            graphics.setColor(Color.decode(BACKGROUND));
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return expected;
+    }
+
+    private static BufferedImage image(int type) {
+        return fill(new BufferedImage(WIDTH, HEIGHT, type));
+    }
+
+    private static BufferedImage fill(BufferedImage image) {
+        // Fully transparent, fully opaque and everything in between, the same pixels for every layout
+        Random random = new Random(42);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int alpha = switch ((x + y) % 5) {
+                    case 0 -> 0;
+                    case 1 -> 255;
+                    default -> random.nextInt(256);
+                };
+                image.setRGB(x, y, alpha << 24 | random.nextInt(1 << 24));
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,151 @@
+package com.danieloliveira.file_converter.image.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledImageOutputStreamTests {
+
+    private final List<byte[]> released = new ArrayList<>();
+
+    @Test
+    void patchesAHeaderAfterSeekingBack() throws IOException {
+        // The RIFF size field is only known once the chunks after it are written
+        StreamWrites riff = stream -> {
+            stream.writeBytes("RIFF");
+            stream.writeInt(0);
+            stream.writeBytes("WEBPVP8 ");
+            stream.write(new byte[100], 0, 100);
+            long end = stream.getStreamPosition();
+            stream.seek(4);
+            stream.writeInt((int) end - 8);
+            stream.seek(end);
+            stream.writeShort(0x1234);
+        };
+
+        byte[] pooled = writePooled(new byte[16], riff);
+
+        assertThat(pooled).isEqualTo(writeReference(riff));
+        assertThat(pooled).hasSize(118);
+    }
+
+    @Test
+    void overwritingEarlierBytesKeepsTheLength() throws IOException {
+        StreamWrites overwrite = stream -> {
+            stream.write("abcdefgh".getBytes(StandardCharsets.US_ASCII));
+            stream.seek(2);
+            stream.write('X');
+            stream.write("YZ".getBytes(StandardCharsets.US_ASCII), 0, 2);
+        };
+
+        byte[] pooled = writePooled(new byte[64], overwrite);
+
+        assertThat(new String(pooled, StandardCharsets.US_ASCII)).isEqualTo("abXYZfgh");
+        assertThat(pooled).isEqualTo(writeReference(overwrite));
+    }
+
+    @Test
+    void readsBackWhatWasWrittenAfterSeeking() throws IOException {
+        PooledImageOutputStream stream = new PooledImageOutputStream(new byte[4], released::add);
+        stream.writeInt(0xCAFEBABE);
+        stream.writeInt(42);
+        stream.seek(0);
+
+        assertThat(stream.readInt()).isEqualTo(0xCAFEBABE);
+        assertThat(stream.readInt()).isEqualTo(42);
+        assertThat(stream.read()).isEqualTo(-1);
+        assertThat(stream.length()).isEqualTo(8);
+        stream.close();
+    }
+
+    @Test
+    void keepsBitsWrittenOverEarlierBytes() throws IOException {
+        StreamWrites bits = stream -> {
+            stream.writeBits(0b101, 3);
+            stream.write(0xFF);
+            stream.seek(0);
+            stream.writeBits(0b1, 1);
+            stream.seek(2);
+            stream.writeBits(0b11, 2);
+        };
+
+        byte[] pooled = writePooled(new byte[1], bits);
+
+        assertThat(pooled).containsExactly(0xA0, 0xFF, 0xC0);
+        assertThat(pooled).isEqualTo(writeReference(bits));
+    }
+
+    @Test
+    void matchesTheImageIoCacheForEncoderOutput() throws IOException {
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, x * 4 << 16 | y * 5 << 8 | (x ^ y));
+            }
+        }
+
+        for (String format : List.of("png", "jpeg", "bmp")) {
+            StreamWrites encode = stream -> {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+                try {
+                    writer.setOutput(stream);
+                    writer.write(image);
+                } finally {
+                    writer.dispose();
+                }
+            };
+
+            assertThat(writePooled(new byte[256], encode)).as(format).isEqualTo(writeReference(encode));
+        }
+    }
+
+    @Test
+    void releasesTheGrownBufferOnClose() throws IOException {
+        byte[] initial = new byte[8];
+        PooledImageOutputStream stream = new PooledImageOutputStream(initial, released::add);
+        stream.write(new byte[100], 0, 100);
+        stream.close();
+
+        assertThat(released).singleElement().satisfies(buffer -> {
+            assertThat(buffer).isNotSameAs(initial);
+            assertThat(buffer.length).isGreaterThanOrEqualTo(100);
+        });
+    }
+
+    private byte[] writePooled(byte[] buffer, StreamWrites writes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PooledImageOutputStream stream = new PooledImageOutputStream(buffer, released::add);
+        try {
+            writes.apply(stream);
+            stream.writeTo(output);
+        } finally {
+            stream.close();
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] writeReference(StreamWrites writes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(output)) {
+            writes.apply(stream);
+        }
+        return output.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface StreamWrites {
+
+        void apply(ImageOutputStream stream) throws IOException;
+    }
+}
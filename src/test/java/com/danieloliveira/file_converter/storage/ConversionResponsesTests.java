@@ -0,0 +1,157 @@
+package com.danieloliveira.file_converter.storage;
+
+import com.danieloliveira.file_converter.FileConverterApplication;
+import com.danieloliveira.file_converter.document.office.OfficeProcessPool;
+import org.jodconverter.core.DocumentConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = FileConverterApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"jodconverter.local.enabled=false", "conversion.store.enabled=false"})
+class ConversionResponsesTests {
+
+    private static final String TEXT = "A line of extracted text that compresses well. ".repeat(4000);
+
+    @LocalServerPort
+    int port;
+
+    @MockitoBean
+    DocumentConverter converter;
+
+    @MockitoBean
+    OfficeProcessPool pool;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void compressesLargeTextResultsWithAWeakTag() throws Exception {
+        HttpResponse<byte[]> response = post("/documents/to-txt", docx(), "Accept-Encoding", "gzip");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).contains("gzip");
+        assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(etag -> assertThat(etag).startsWith("W/\""));
+        assertThat(response.headers().allValues("Vary")).anySatisfy(vary -> assertThat(vary).containsIgnoringCase("accept-encoding"));
+        assertThat(gunzip(response.body())).isEqualTo(TEXT + "\n");
+    }
+
+    @Test
+    void keepsTheIdentityBodyAndStrongTagWithoutGzip() throws Exception {
+        HttpResponse<byte[]> response = post("/documents/to-txt", docx(), "Accept-Encoding", "gzip;q=0, identity");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(etag -> assertThat(etag).startsWith("\""));
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo(TEXT + "\n");
+    }
+
+    @Test
+    void answersRangesFromTheIdentityBody() throws Exception {
+        byte[] document = docx();
+        String etag = post("/documents/to-txt", document).headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> range = post("/documents/to-txt", document,
+                "Accept-Encoding", "gzip", "Range", "bytes=0-9", "If-Range", etag);
+
+        assertThat(range.statusCode()).isEqualTo(206);
+        assertThat(range.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(range.headers().firstValue("ETag")).contains(etag);
+        assertThat(range.headers().firstValue("Content-Range")).hasValueSatisfying(value -> assertThat(value).startsWith("bytes 0-9/"));
+        assertThat(new String(range.body(), StandardCharsets.UTF_8)).isEqualTo(TEXT.substring(0, 10));
+    }
+
+    @Test
+    void sendsTheWholeResultWhenIfRangeDoesNotMatch() throws Exception {
+        HttpResponse<byte[]> response = post("/documents/to-txt", docx(),
+                "Range", "bytes=0-9", "If-Range", "\"stale\"");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).hasSize((TEXT + "\n").getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void answersNotModifiedForStrongAndWeakTags() throws Exception {
+        byte[] document = docx();
+        String etag = post("/documents/to-txt", document).headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> strong = post("/documents/to-txt", document, "If-None-Match", etag);
+        HttpResponse<byte[]> weak = post("/documents/to-txt", document, "Accept-Encoding", "gzip", "If-None-Match", "W/" + etag);
+
+        assertThat(strong.statusCode()).isEqualTo(304);
+        assertThat(strong.headers().firstValue("ETag")).contains(etag);
+        assertThat(weak.statusCode()).isEqualTo(304);
+        assertThat(weak.headers().firstValue("ETag")).contains("W/" + etag);
+        assertThat(weak.body()).isEmpty();
+    }
+
+    @Test
+    void keepsStrongTagsForTypesThatAreNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = post("/images/to-png", png(), "Accept-Encoding", "gzip");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(etag -> assertThat(etag).startsWith("\""));
+    }
+
+    private HttpResponse<byte[]> post(String path, byte[] file, String... headers) throws IOException, InterruptedException {
+        String boundary = UUID.randomUUID().toString();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"upload\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(file);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/conversions" + path))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] docx() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("_rels/.rels"));
+            zip.write(("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\""
+                    + " Target=\"word/document.xml\"/></Relationships>").getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(("<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"><w:body>"
+                    + "<w:p><w:r><w:t>" + TEXT + "</w:t></w:r></w:p></w:body></w:document>").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] png() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB), "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.danieloliveira.file_converter.store.service;
+
+import com.danieloliveira.file_converter.cache.model.ConversionCacheKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArtifactStoreTests {
+
+    @TempDir
+    Path directory;
+
+    private final List<ArtifactStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ArtifactStore store : opened) {
+            store.close();
+        }
+    }
+
+    @Test
+    void storedResultsSurviveARestart() throws IOException {
+        ArtifactStore store = open(DataSize.ofMegabytes(1));
+        store.put(key("a", "PDF"), result("first"));
+        store.put(key("b", "TXT"), result("second"));
+        store.close();
+
+        ArtifactStore reopened = open(DataSize.ofMegabytes(1));
+
+        assertThat(reopened.getEntries()).isEqualTo(2);
+        assertThat(read(reopened.get(key("a", "PDF")))).isEqualTo("first");
+        assertThat(read(reopened.get(key("b", "TXT")))).isEqualTo("second");
+    }
+
+    @Test
+    void keepsTheResultWhenTheSourceIsDeletedBeforeTheWrite() throws IOException {
+        ArtifactStore store = open(DataSize.ofMegabytes(1));
+        Path result = result("content");
+        store.put(key("a", "PNG"), result);
+        Files.delete(result);
+        store.close();
+
+        assertThat(read(open(DataSize.ofMegabytes(1)).get(key("a", "PNG")))).isEqualTo("content");
+    }
+
+    @Test
+    void identicalResultsShareOneObject() throws IOException {
+        ArtifactStore store = open(DataSize.ofMegabytes(1));
+        store.put(key("a", "PDF"), result("same"));
+        store.put(key("b", "PDF"), result("same"));
+        store.close();
+
+        ArtifactStore reopened = open(DataSize.ofMegabytes(1));
+
+        assertThat(reopened.getEntries()).isEqualTo(2);
+        assertThat(reopened.getSizeBytes()).isEqualTo(4);
+        assertThat(objects()).hasSize(1);
+    }
+
+    @Test
+    void replaysRemovalsAfterGarbageCollection() throws IOException {
+        // Room for two results, one of them goes when the third is committed
+        ArtifactStore store = open(DataSize.ofBytes(8));
+        store.put(key("a", "PDF"), result("aaaa"));
+        store.put(key("b", "PDF"), result("bbbb"));
+        store.put(key("c", "PDF"), result("cccc"));
+        store.close();
+        List<ConversionCacheKey> kept = Stream.of("a", "b", "c").map(input -> key(input, "PDF"))
+                .filter(store::contains)
+                .toList();
+
+        ArtifactStore reopened = open(DataSize.ofBytes(8));
+
+        assertThat(kept).hasSize(2);
+        assertThat(Stream.of("a", "b", "c").map(input -> key(input, "PDF")).filter(reopened::contains).toList())
+                .isEqualTo(kept);
+        assertThat(reopened.getSizeBytes()).isEqualTo(8);
+        assertThat(objects()).hasSize(2);
+    }
+
+    @Test
+    void compactsTheIndexToTheLiveEntries() throws IOException {
+        ArtifactStore store = open(DataSize.ofMegabytes(1));
+        store.put(key("a", "PDF"), result("old"));
+        store.put(key("a", "PDF"), result("new"));
+        store.put(key("b", "PDF"), result("other"));
+        store.close();
+        assertThat(indexLines()).hasSize(3);
+
+        ArtifactStore reopened = open(DataSize.ofMegabytes(1));
+
+        assertThat(indexLines()).hasSize(2);
+        assertThat(read(reopened.get(key("a", "PDF")))).isEqualTo("new");
+        assertThat(objects()).hasSize(2);
+    }
+
+    @Test
+    void skipsATornLastIndexRecord() throws IOException {
+        ArtifactStore store = open(DataSize.ofMegabytes(1));
+        store.put(key("a", "PDF"), result("first"));
+        store.close();
+        Files.writeString(directory.resolve("index.log"), "P\tb\tPDF\t\t12ab", StandardOpenOption.APPEND);
+
+        ArtifactStore reopened = open(DataSize.ofMegabytes(1));
+
+        assertThat(reopened.getEntries()).isEqualTo(1);
+        assertThat(read(reopened.get(key("a", "PDF")))).isEqualTo("first");
+    }
+
+    @Test
+    void recoversFromInterruptedWritesAndDamagedObjects() throws IOException {
+        ArtifactStore store = open(DataSize.ofMegabytes(1));
+        store.put(key("intact", "PDF"), result("intact"));
+        store.put(key("truncated", "PDF"), result("truncated"));
+        store.put(key("missing", "PDF"), result("missing"));
+        store.close();
+
+        Path staged = Files.writeString(directory.resolve("staging").resolve("artifact-interrupted.tmp"), "partial");
+        Path orphan = Files.createDirectories(directory.resolve("objects").resolve("ff").resolve("ff"))
+                .resolve("f".repeat(64));
+        Files.writeString(orphan, "orphan");
+        for (Path object : objects()) {
+            String content = Files.readString(object);
+            if (content.equals("truncated")) {
+                Files.writeString(object, "trunc");
+            } else if (content.equals("missing")) {
+                Files.delete(object);
+            }
+        }
+
+        ArtifactStore reopened = open(DataSize.ofMegabytes(1));
+
+        assertThat(reopened.getEntries()).isEqualTo(1);
+        assertThat(read(reopened.get(key("intact", "PDF")))).isEqualTo("intact");
+        assertThat(reopened.contains(key("truncated", "PDF"))).isFalse();
+        assertThat(reopened.contains(key("missing", "PDF"))).isFalse();
+        assertThat(reopened.getSizeBytes()).isEqualTo(6);
+        assertThat(staged).doesNotExist();
+        assertThat(orphan).doesNotExist();
+        assertThat(objects()).hasSize(1);
+    }
+
+    @Test
+    void disabledStoreKeepsNothing() throws IOException {
+        ArtifactStore store = new ArtifactStore(false, directory, DataSize.ofMegabytes(1), Duration.ofDays(1), 4);
+        opened.add(store);
+        store.put(key("a", "PDF"), result("content"));
+        store.close();
+
+        assertThat(store.get(key("a", "PDF"))).isEmpty();
+        assertThat(directory.resolve("index.log")).doesNotExist();
+    }
+
+    private ArtifactStore open(DataSize maxSize) throws IOException {
+        ArtifactStore store = new ArtifactStore(true, directory, maxSize, Duration.ofDays(1), 16);
+        opened.add(store);
+        return store;
+    }
+
+    private static ConversionCacheKey key(String input, String targetFormat) {
+        return new ConversionCacheKey(input, targetFormat, "");
+    }
+
+    private Path result(String content) throws IOException {
+        Path results = Files.createDirectories(directory.resolve("results"));
+        return Files.writeString(Files.createTempFile(results, "result", ".bin"), content);
+    }
+
+    private List<Path> objects() throws IOException {
+        try (Stream<Path> files = Files.walk(directory.resolve("objects"))) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private List<String> indexLines() throws IOException {
+        return Files.readAllLines(directory.resolve("index.log"), StandardCharsets.UTF_8);
+    }
+
+    private static String read(Optional<Resource> resource) throws IOException {
+        assertThat(resource).isPresent();
+        return resource.get().getContentAsString(StandardCharsets.UTF_8);
+    }
+}